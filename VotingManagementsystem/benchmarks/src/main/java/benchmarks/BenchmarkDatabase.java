@@ -0,0 +1,213 @@
+package benchmarks;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import logging.Log;
+import services.DatabaseConnection;
+import services.DatabasePollService;
+import services.DatabaseService;
+import services.DatabaseTallyService;
+import services.DatabaseVoteService;
+import services.TallyEngine;
+
+/**
+ * Database shared by every benchmark thread in a fork.
+ * Creates the schema with DatabaseService.setupDatabase(), then seeds the configured
+ * number of users and polls. The first votesPerPoll users have voted in every poll;
+ * the remaining users have not voted anywhere, which gives castVote a supply of
+ * new (user, poll) pairs. Every fourth poll is Completed, the rest are Active.
+ *
+ * Each fork starts from an empty database (the default in-memory H2 URL), so a
+ * benchmark that casts votes does not affect the next one.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    @Param("10000")
+    public int users;
+
+    @Param("200")
+    public int polls;
+
+    @Param("100")
+    public int votesPerPoll;
+
+    DatabaseVoteService voteService;
+    DatabasePollService pollService;
+
+    private int[] userIds;
+    private int[] pollIds;
+    private int[] activePollIds;
+    private final AtomicLong nextNewVote = new AtomicLong();
+    private final LongAdder reusedVotes = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        if (votesPerPoll > users) {
+            throw new IllegalArgumentException("votesPerPoll (" + votesPerPoll + ") exceeds users (" + users + ")");
+        }
+
+        new DatabaseService().setupDatabase();
+        seed();
+        if (!new DatabaseTallyService().recountAll()) {
+            throw new IllegalStateException("Could not compute tallies for the seeded votes");
+        }
+        TallyEngine.startIfEnabled();
+
+        voteService = new DatabaseVoteService();
+        pollService = new DatabasePollService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        long reused = reusedVotes.sum();
+        if (reused > 0) {
+            System.out.println("Ran out of new (user, poll) pairs; " + reused +
+                               " castVote calls were duplicates. Raise -p users to avoid this.");
+        }
+        TallyEngine.stop();
+        DatabaseConnection.closeConnection();
+        Log.flush();
+    }
+
+    /**
+     * @return A random seeded user ID
+     */
+    int randomUserId() {
+        return userIds[ThreadLocalRandom.current().nextInt(userIds.length)];
+    }
+
+    /**
+     * @return A random seeded poll ID, active or completed
+     */
+    int randomPollId() {
+        return pollIds[ThreadLocalRandom.current().nextInt(pollIds.length)];
+    }
+
+    /**
+     * Next (user, poll) pair that has not voted yet, as userId << 32 | pollId.
+     * Pairs run out after (users - votesPerPoll) * active polls calls; after that
+     * they repeat and castVote measures the duplicate path instead.
+     */
+    long nextNewVote() {
+        long available = (long) (userIds.length - votesPerPoll) * activePollIds.length;
+        long index = nextNewVote.getAndIncrement();
+        if (index >= available) {
+            reusedVotes.increment();
+            index %= available;
+        }
+        int userId = userIds[votesPerPoll + (int) (index / activePollIds.length)];
+        int pollId = activePollIds[(int) (index % activePollIds.length)];
+        return ((long) userId << 32) | pollId;
+    }
+
+    private void seed() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM polls")) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    throw new IllegalStateException(
+                        "Benchmarks seed their own data; point voting.db.url at an empty database");
+                }
+            }
+
+            int adminId;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT id FROM admin ORDER BY id LIMIT 1")) {
+                rs.next();
+                adminId = rs.getInt(1);
+            }
+
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO users (full_name, gender, phone, email, password) VALUES (?, ?, ?, ?, ?)")) {
+                    for (int i = 0; i < users; i++) {
+                        stmt.setString(1, "Bench User " + i);
+                        stmt.setString(2, i % 2 == 0 ? "male" : "female");
+                        stmt.setString(3, String.format("98%08d", i));
+                        stmt.setString(4, "bench-user-" + i + "@example.com");
+                        stmt.setString(5, "password");
+                        addToBatch(stmt, i);
+                    }
+                    stmt.executeBatch();
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO polls (name, candidate1, candidate2, status, total_votes, created_by) " +
+                        "VALUES (?, ?, ?, ?, 0, ?)")) {
+                    for (int i = 0; i < polls; i++) {
+                        stmt.setString(1, "Bench Poll " + i);
+                        stmt.setString(2, "Candidate A" + i);
+                        stmt.setString(3, "Candidate B" + i);
+                        stmt.setString(4, i % 4 == 3 ? "Completed" : "Active");
+                        stmt.setInt(5, adminId);
+                        addToBatch(stmt, i);
+                    }
+                    stmt.executeBatch();
+                }
+                conn.commit();
+
+                userIds = loadIds(conn, "SELECT id FROM users WHERE email LIKE 'bench-user-%' ORDER BY id");
+                pollIds = loadIds(conn, "SELECT id FROM polls ORDER BY id");
+                activePollIds = loadIds(conn, "SELECT id FROM polls WHERE status = 'Active' ORDER BY id");
+
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO votes (poll_id, user_id, candidate_id) VALUES (?, ?, ?)")) {
+                    int count = 0;
+                    for (int pollId : pollIds) {
+                        for (int i = 0; i < votesPerPoll; i++) {
+                            stmt.setInt(1, pollId);
+                            stmt.setInt(2, userIds[i]);
+                            stmt.setInt(3, (i + pollId) % 2 + 1);
+                            addToBatch(stmt, count++);
+                        }
+                    }
+                    stmt.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static void addToBatch(PreparedStatement stmt, int index) throws SQLException {
+        stmt.addBatch();
+        if ((index + 1) % INSERT_BATCH_SIZE == 0) {
+            stmt.executeBatch();
+        }
+    }
+
+    private static int[] loadIds(Connection conn, String sql) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,89 @@
+package benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs ServiceBenchmarks at each thread count (1, 8 and 64 by default), once for
+ * throughput and once for sampled latency percentiles, and writes each run's results
+ * to target/jmh-&lt;threads&gt;-threads-&lt;mode&gt;.json for comparison between releases.
+ *
+ * Usage: java [options] -jar target/benchmarks.jar [benchmark regex]
+ *   -Dbench.threads=1,8,64    Thread counts to run
+ *   -Dbench.users=10000       Seeded users
+ *   -Dbench.polls=200         Seeded polls
+ *   -Dbench.votesPerPoll=100  Seeded votes per poll
+ *
+ * Any -Dvoting.* property (database URL, pool size, cache settings, log level) is
+ * passed on to the benchmark JVMs. Without -Dvoting.db.url an in-memory H2
+ * database in MySQL mode is used.
+ */
+public class RunBenchmarks {
+
+    private static final String DEFAULT_DB_URL =
+        "jdbc:h2:mem:benchmarks;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ServiceBenchmarks.class.getSimpleName();
+        List<String> jvmArgs = forwardedProperties();
+        new File("target").mkdirs();
+
+        for (String threads : System.getProperty("bench.threads", "1,8,64").split(",")) {
+            int threadCount = Integer.parseInt(threads.trim());
+            // Throughput reads best in ops/s, latency percentiles in microseconds
+            run(include, jvmArgs, threadCount, Mode.Throughput, TimeUnit.SECONDS);
+            run(include, jvmArgs, threadCount, Mode.SampleTime, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    private static void run(String include, List<String> jvmArgs, int threadCount, Mode mode, TimeUnit unit)
+            throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+            .include(include)
+            .threads(threadCount)
+            .mode(mode)
+            .timeUnit(unit)
+            .jvmArgsAppend(jvmArgs.toArray(new String[0]))
+            .param("users", System.getProperty("bench.users", "10000"))
+            .param("polls", System.getProperty("bench.polls", "200"))
+            .param("votesPerPoll", System.getProperty("bench.votesPerPoll", "100"))
+            .resultFormat(ResultFormatType.JSON)
+            .result("target/jmh-" + threadCount + "-threads-" + mode.shortLabel() + ".json");
+        new Runner(options.build()).run();
+    }
+
+    /**
+     * Pass the application's -Dvoting.* settings on to the forked JVMs, defaulting to the
+     * embedded database and a pool large enough that the widest run is not pool-bound
+     */
+    private static List<String> forwardedProperties() {
+        List<String> jvmArgs = new ArrayList<>();
+        boolean hasUrl = false;
+        boolean hasPoolSize = false;
+        for (Map.Entry<Object, Object> entry : System.getProperties().entrySet()) {
+            String key = entry.getKey().toString();
+            if (key.startsWith("voting.")) {
+                jvmArgs.add("-D" + key + "=" + entry.getValue());
+                hasUrl |= key.equals("voting.db.url");
+                hasPoolSize |= key.equals("voting.db.pool.maxSize");
+            }
+        }
+        if (!hasUrl) {
+            jvmArgs.add("-Dvoting.db.url=" + DEFAULT_DB_URL);
+        }
+        if (!hasPoolSize) {
+            jvmArgs.add("-Dvoting.db.pool.maxSize=64");
+        }
+        return jvmArgs;
+    }
+}
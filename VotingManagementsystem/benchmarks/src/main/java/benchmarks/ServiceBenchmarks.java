@@ -0,0 +1,58 @@
+package benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.collections.ObservableList;
+import models.Poll;
+import models.User;
+import models.Vote;
+import services.VoteResult;
+
+/**
+ * Throughput and sampled latency (with percentiles) of the service methods behind
+ * the dashboards. Thread counts and units are chosen by RunBenchmarks, or with -t
+ * and -tu when the JMH command line is used directly.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmarks {
+
+    @Benchmark
+    public VoteResult castVote(BenchmarkDatabase db) {
+        long pair = db.nextNewVote();
+        int candidateId = ThreadLocalRandom.current().nextInt(1, 3);
+        return db.voteService.castVote(new Vote((int) pair, (int) (pair >>> 32), candidateId));
+    }
+
+    @Benchmark
+    public boolean hasUserVoted(BenchmarkDatabase db) {
+        return db.voteService.hasUserVoted(db.randomUserId(), db.randomPollId());
+    }
+
+    @Benchmark
+    public int getVoteCountForCandidate(BenchmarkDatabase db) {
+        return db.voteService.getVoteCountForCandidate(db.randomPollId(), ThreadLocalRandom.current().nextInt(1, 3));
+    }
+
+    @Benchmark
+    public ObservableList<Poll> getAllPolls(BenchmarkDatabase db) {
+        return db.pollService.getAllPolls();
+    }
+
+    @Benchmark
+    public ObservableList<User> getAllUsers(BenchmarkDatabase db, ThreadServices services) {
+        return services.userService.getAllUsers();
+    }
+}
@@ -0,0 +1,18 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import services.DatabaseUserService;
+
+/**
+ * User service owned by one benchmark thread.
+ * getAllUsers() refills a list held by the service instance, and the application gives
+ * each dashboard its own instance used from the JavaFX thread, so threads must not
+ * share it.
+ */
+@State(Scope.Thread)
+public class ThreadServices {
+
+    final DatabaseUserService userService = new DatabaseUserService();
+}
@@ -1,6 +1,14 @@
 package application;
 
+import logging.Log;
+import logging.Logger;
+import metrics.Metrics;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.PauseTransition;
+import javafx.animation.Timeline;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -15,17 +23,47 @@ import javafx.scene.text.TextAlignment;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import javafx.util.Duration;
 import models.User;
 import models.Poll;
 import services.UserService;
 import services.PollService;
 import services.DatabaseUserService;
 import services.DatabasePollService;
+import services.DashboardSummary;
+import services.DashboardSummaryService;
+import services.DatabaseDashboardSummaryService;
+import services.DatabaseTallyService;
+import services.PollCache;
+import services.PollChangeEvent;
+import services.PollFilter;
+import services.PollPage;
+import services.PollResultsCache;
+import services.PollSort;
+import services.TallyService;
+import services.UserPage;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * Inheritance:public class adminDashboard extends Application {
  */
 public class AdminDashboard extends Application {
+    private static final Logger LOG = Log.getLogger(AdminDashboard.class);
+
+    // Polls loaded into the table at a time (-Dvoting.ui.pollPageSize)
+    private static final int POLL_PAGE_SIZE = Integer.getInteger("voting.ui.pollPageSize", 50);
+
+    // Users loaded into the table at a time
+    private static final int USER_PAGE_SIZE = 100;
+
+    // Pause in typing before the user search runs, so a query isn't sent per keystroke
+    private static final Duration SEARCH_DELAY = Duration.millis(250);
+
+    // How often an open statistics popup re-reads the results cache
+    private static final Duration STATS_REFRESH = Duration.seconds(2);
+
   /**
    * encapsulation
    * polymorphism
@@ -34,12 +72,31 @@ public class AdminDashboard extends Application {
 	
 	private UserService userService;
     private PollService pollService;
+    private TallyService tallyService;
+    // Per-candidate counts, shared by every pane that shows results
+    private PollResultsCache resultsCache;
+    // Counts for the stats cards, reloaded in the background
+    private DashboardSummaryService summaryService;
+    private Consumer<DashboardSummary> summaryListener;
+    // Keeps the poll table in step with poll writes, so a change doesn't reload it
+    private Consumer<PollChangeEvent> pollChangeListener;
     
     private TableView<User> userTableView;
+    private TablePager<User> userPager;
+    // Current user search, so edits reload the same results
+    private String userQuery = "";
     private TableView<Poll> pollTableView;
+    private TablePager<Poll> pollPager;
+    // Runs user searches and loads later pages of the tables
+    private DataAccessExecutor dataAccess;
     private StackPane contentArea;
     private VBox userManagementView;
     private VBox pollManagementView;
+    private VBox userCountCard;
+    private VBox totalPollsCard;
+    private VBox activePollsCard;
+    private VBox completedPollsCard;
+    private VBox totalVotesCard;
 
     public static void main(String[] args) {
         launch(args);
@@ -56,8 +113,12 @@ public class AdminDashboard extends Application {
      * encapsulation
      */
     private void initializeServices() {
-        userService = new DatabaseUserService();
-        pollService = new DatabasePollService();
+        userService = Metrics.instrument(UserService.class, new DatabaseUserService());
+        pollService = Metrics.instrument(PollService.class, new DatabasePollService());
+        tallyService = new DatabaseTallyService();
+        resultsCache = PollResultsCache.start();
+        summaryService = new DatabaseDashboardSummaryService();
+        dataAccess = new DataAccessExecutor("admin-dashboard-data");
     }
 
     /**
@@ -77,6 +138,14 @@ public class AdminDashboard extends Application {
         userManagementView = createUserManagementPane();
         pollManagementView = createPollManagementPane();
 
+        // Fill in the stats cards, and update them in place whenever a count changes
+        summaryListener = summary -> Platform.runLater(() -> showSummary(summary));
+        summaryService.addListener(summaryListener);
+        dataAccess.submit("summary", summaryService::getSummary, this::showSummary);
+
+        pollChangeListener = event -> Platform.runLater(() -> applyPollChange(event));
+        PollCache.getInstance().addListener(pollChangeListener);
+
         // Show poll management view by default
         showPollManagementView();
 
@@ -130,9 +199,13 @@ public class AdminDashboard extends Application {
                     login.start(new Stage());
                     
                     // Close this window
+                    dataAccess.shutdown();
+                    summaryService.removeListener(summaryListener);
+                    PollCache.getInstance().removeListener(pollChangeListener);
+                    summaryService.shutdown();
                     ((Stage) contentArea.getScene().getWindow()).close();
                 } catch (Exception e) {
-                    e.printStackTrace();
+                    LOG.error("Error opening login screen: " + e.getMessage(), e);
                 }
             }
         });
@@ -233,7 +306,7 @@ public class AdminDashboard extends Application {
         header.getChildren().addAll(title, spacer, searchField, searchBtn);
 
         // User count card
-        VBox userCountCard = createStatsCard("Total Users", String.valueOf(userService.getUserCount()), "stats-primary");
+        userCountCard = createStatsCard("Total Users", "…", "stats-primary");
         userCountCard.setPrefWidth(200);
 
         // Table with card styling
@@ -244,8 +317,22 @@ public class AdminDashboard extends Application {
         userTableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         userTableView.setPlaceholder(new Label("No users found"));
         setupUserTableColumns();
+        userPager = new TablePager<>(userTableView, dataAccess, "userPage", USER_PAGE_SIZE, User::getId);
         tableCard.getChildren().add(userTableView);
 
+        // Search as the admin types, once they pause; Enter or the button searches at once
+        PauseTransition searchDelay = new PauseTransition(SEARCH_DELAY);
+        searchDelay.setOnFinished(e -> searchUsers(searchField.getText()));
+        searchField.textProperty().addListener((obs, oldText, newText) -> searchDelay.playFromStart());
+        searchField.setOnAction(e -> {
+            searchDelay.stop();
+            searchUsers(searchField.getText());
+        });
+        searchBtn.setOnAction(e -> {
+            searchDelay.stop();
+            searchUsers(searchField.getText());
+        });
+
         // Form card
         VBox formCard = createCard();
         formCard.setSpacing(15);
@@ -415,6 +502,7 @@ public class AdminDashboard extends Application {
             if (alert.showAndWait().get() == ButtonType.OK) {
                 if (userService.deleteUser(selected.getId())) {
                     loadUserData();
+                    summaryService.requestRefresh();
                     showNotification("User deleted successfully");
                 } else {
                     showNotification("Failed to delete user. The user may have active polls.", true);
@@ -426,10 +514,37 @@ public class AdminDashboard extends Application {
     }
 
     /**
-     * Load user data into the table
+     * Load the first page of the current search into the table
      */
     private void loadUserData() {
-        userTableView.setItems(userService.getAllUsers());
+        searchUsers(userQuery);
+    }
+
+    /**
+     * Search users by name or email prefix in the background; later pages load as the
+     * table is scrolled
+     *
+     * @param query Start of the name or email; empty lists every user
+     */
+    private void searchUsers(String query) {
+        String prefix = query.trim();
+        userQuery = prefix;
+        dataAccess.submit("userSearch", () -> userService.searchUsers(prefix, null, USER_PAGE_SIZE), firstPage -> {
+            // Ignore results for a query the admin has since changed
+            if (!prefix.equals(userQuery)) {
+                return;
+            }
+            // Later pages follow the search's own key, which the last row alone doesn't give
+            AtomicReference<UserPage.Key> nextKey = new AtomicReference<>(firstPage.getNextKey());
+            Comparator<User> order = prefix.isEmpty()
+                ? Comparator.comparingInt(User::getId)
+                : Comparator.comparing(User::getFullName).thenComparingInt(User::getId);
+            userPager.show(firstPage.getUsers(), firstPage.hasMore(), order, (last, limit) -> {
+                UserPage page = userService.searchUsers(prefix, nextKey.get(), limit);
+                nextKey.set(page.getNextKey());
+                return page.getUsers();
+            });
+        });
     }
 
     /**
@@ -454,10 +569,10 @@ public class AdminDashboard extends Application {
         // Stats cards
         HBox statsBox = new HBox(15);
         statsBox.setPrefHeight(100);
-        VBox totalPollsCard = createStatsCard("Total Polls", String.valueOf(pollService.getPollCount()), "stats-primary");
-        VBox activePollsCard = createStatsCard("Active Polls", String.valueOf(pollService.getActivePollCount()), "stats-success");
-        VBox completedPollsCard = createStatsCard("Completed", String.valueOf(pollService.getCompletedPollCount()), "stats-accent");
-        VBox totalVotesCard = createStatsCard("Total Votes", String.valueOf(pollService.getTotalVoteCount()), "stats-warning");
+        totalPollsCard = createStatsCard("Total Polls", "…", "stats-primary");
+        activePollsCard = createStatsCard("Active Polls", "…", "stats-success");
+        completedPollsCard = createStatsCard("Completed", "…", "stats-accent");
+        totalVotesCard = createStatsCard("Total Votes", "…", "stats-warning");
         
         statsBox.getChildren().addAll(totalPollsCard, activePollsCard, completedPollsCard, totalVotesCard);
         HBox.setHgrow(totalPollsCard, Priority.ALWAYS);
@@ -473,6 +588,7 @@ public class AdminDashboard extends Application {
         pollTableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         pollTableView.setPlaceholder(new Label("No polls found"));
         setupPollTableColumns();
+        pollPager = new TablePager<>(pollTableView, dataAccess, "pollPage", POLL_PAGE_SIZE, Poll::getId);
         tableCard.getChildren().add(pollTableView);
 
         // Form card
@@ -516,7 +632,8 @@ public class AdminDashboard extends Application {
         statusButtons.setPadding(new Insets(10, 0, 0, 0));
         Button activateBtn = createButton("Activate Poll", "button-success");
         Button completeBtn = createButton("Complete Poll", "button-warning");
-        statusButtons.getChildren().addAll(activateBtn, completeBtn);
+        Button recountBtn = createButton("Recount Votes", "button-info");
+        statusButtons.getChildren().addAll(activateBtn, completeBtn, recountBtn);
 
         // Action buttons
         HBox buttons = new HBox(10);
@@ -540,6 +657,7 @@ public class AdminDashboard extends Application {
         });
         activateBtn.setOnAction(e -> activatePoll());
         completeBtn.setOnAction(e -> completePoll());
+        recountBtn.setOnAction(e -> recountPoll());
 
         // Poll selection handling
         pollTableView.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
@@ -612,12 +730,8 @@ public class AdminDashboard extends Application {
         Label distributionLabel = new Label("Vote Distribution");
         distributionLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-padding: 10 0 5 0;");
         
-        // Calculate percentages (for a real app, you would get actual votes)
-        int totalVotes = poll.getTotalVotes();
-        int candidate1Votes = totalVotes / 2 + (totalVotes % 2); // Just split votes for demonstration
-        int candidate2Votes = totalVotes / 2;
-        double candidate1Percentage = totalVotes > 0 ? (double)candidate1Votes / totalVotes * 100 : 0;
-        double candidate2Percentage = totalVotes > 0 ? (double)candidate2Votes / totalVotes * 100 : 0;
+        // Latest per-candidate counts; filled in from the results cache below
+        int[] counts = new int[2];
         
         // Chart container
         VBox chartContainer = new VBox(20);
@@ -639,18 +753,17 @@ public class AdminDashboard extends Application {
         
         HBox cand1Bar = new HBox();
         cand1Bar.setPrefHeight(30);
-        cand1Bar.setPrefWidth(Math.max(10, (candidate1Percentage / 100) * 350));
         cand1Bar.setStyle(
                 "-fx-background-color: #1976D2;" +
                 "-fx-background-radius: 5px;"
         );
         
-        Label cand1PercentLabel = new Label(String.format("%.1f%%", candidate1Percentage));
+        Label cand1PercentLabel = new Label();
         cand1PercentLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #1976D2;");
         
         cand1BarContainer.getChildren().addAll(cand1Bar, cand1PercentLabel);
         
-        Label cand1VotesLabel = new Label(candidate1Votes + " votes");
+        Label cand1VotesLabel = new Label();
         cand1VotesLabel.setStyle("-fx-text-fill: #78909C;");
         
         VBox cand1Box = new VBox(5);
@@ -665,29 +778,59 @@ public class AdminDashboard extends Application {
         
         HBox cand2Bar = new HBox();
         cand2Bar.setPrefHeight(30);
-        cand2Bar.setPrefWidth(Math.max(10, (candidate2Percentage / 100) * 350));
         cand2Bar.setStyle(
                 "-fx-background-color: #FF5252;" +
                 "-fx-background-radius: 5px;"
         );
         
-        Label cand2PercentLabel = new Label(String.format("%.1f%%", candidate2Percentage));
+        Label cand2PercentLabel = new Label();
         cand2PercentLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #FF5252;");
         
         cand2BarContainer.getChildren().addAll(cand2Bar, cand2PercentLabel);
         
-        Label cand2VotesLabel = new Label(candidate2Votes + " votes");
+        Label cand2VotesLabel = new Label();
         cand2VotesLabel.setStyle("-fx-text-fill: #78909C;");
         
         VBox cand2Box = new VBox(5);
         cand2Box.getChildren().addAll(cand2NameLabel, cand2BarContainer, cand2VotesLabel);
         
         // Total votes
-        Label totalVotesLabel = new Label("Total Votes: " + totalVotes);
+        Label totalVotesLabel = new Label();
         totalVotesLabel.setStyle("-fx-font-weight: bold; -fx-padding: 10px 0 0 0;");
         
         chartContainer.getChildren().addAll(cand1Box, cand2Box, totalVotesLabel);
         
+        // Show the counts with their percentages
+        Runnable showCounts = () -> {
+            int totalVotes = counts[0] + counts[1];
+            double candidate1Percentage = totalVotes > 0 ? (double)counts[0] / totalVotes * 100 : 0;
+            double candidate2Percentage = totalVotes > 0 ? (double)counts[1] / totalVotes * 100 : 0;
+            cand1Bar.setPrefWidth(Math.max(10, (candidate1Percentage / 100) * 350));
+            cand1PercentLabel.setText(String.format("%.1f%%", candidate1Percentage));
+            cand1VotesLabel.setText(counts[0] + " votes");
+            cand2Bar.setPrefWidth(Math.max(10, (candidate2Percentage / 100) * 350));
+            cand2PercentLabel.setText(String.format("%.1f%%", candidate2Percentage));
+            cand2VotesLabel.setText(counts[1] + " votes");
+            totalVotesLabel.setText("Total Votes: " + totalVotes);
+        };
+        showCounts.run();
+        
+        // Keep the counts live while the popup is open; reads are served by the shared cache
+        String statsKey = "pollStats-" + poll.getId();
+        Runnable loadCounts = () -> dataAccess.submit(statsKey, () -> resultsCache.getResults(poll.getId()), loaded -> {
+            counts[0] = loaded[0];
+            counts[1] = loaded[1];
+            showCounts.run();
+        });
+        loadCounts.run();
+        Timeline liveCounts = new Timeline(new KeyFrame(STATS_REFRESH, e -> loadCounts.run()));
+        liveCounts.setCycleCount(Animation.INDEFINITE);
+        liveCounts.play();
+        statsStage.setOnHidden(e -> {
+            liveCounts.stop();
+            dataAccess.cancel(statsKey);
+        });
+        
         // Bottom buttons
         HBox buttonBox = new HBox(15);
         buttonBox.setAlignment(Pos.CENTER_RIGHT);
@@ -695,7 +838,7 @@ public class AdminDashboard extends Application {
         // Results button (shows who won in a popup)
         Button resultsBtn = createButton("Show Results", "button-success");
         resultsBtn.setPrefWidth(150);
-        resultsBtn.setOnAction(e -> showResultsPopup(poll, candidate1Votes, candidate2Votes));
+        resultsBtn.setOnAction(e -> showResultsPopup(poll, counts[0], counts[1]));
         
         // Close button
         Button closeBtn = createButton("Close", "button-muted");
@@ -813,6 +956,22 @@ public class AdminDashboard extends Application {
         resultsStage.show();
     }
 
+    /**
+     * Show the latest counts in the stats cards
+     */
+    private void showSummary(DashboardSummary summary) {
+        setStatsCardValue(userCountCard, summary.getUserCount());
+        setStatsCardValue(totalPollsCard, summary.getPollCount());
+        setStatsCardValue(activePollsCard, summary.getActivePollCount());
+        setStatsCardValue(completedPollsCard, summary.getCompletedPollCount());
+        setStatsCardValue(totalVotesCard, summary.getTotalVoteCount());
+    }
+
+    private void setStatsCardValue(VBox card, int value) {
+        // The value label sits above the title
+        ((Label) card.getChildren().get(0)).setText(String.valueOf(value));
+    }
+
     /**
      * Create a stats card with a value and label
      */
@@ -903,11 +1062,8 @@ public class AdminDashboard extends Application {
                     resultsBtn.setPrefHeight(30);
                     resultsBtn.setOnAction(e -> {
                         Poll poll = getTableView().getItems().get(getIndex());
-                        // Calculate votes for demonstration
-                        int totalVotes = poll.getTotalVotes();
-                        int candidate1Votes = totalVotes / 2 + (totalVotes % 2);
-                        int candidate2Votes = totalVotes / 2;
-                        showResultsPopup(poll, candidate1Votes, candidate2Votes);
+                        dataAccess.submit("pollResults", () -> resultsCache.getResults(poll.getId()),
+                                          counts -> showResultsPopup(poll, counts[0], counts[1]));
                     });
                     
                     // Set up container
@@ -959,7 +1115,7 @@ public class AdminDashboard extends Application {
 
         int result = pollService.createPoll(poll);
         if (result > 0) {
-            loadPollData();
+            summaryService.requestRefresh();
             showNotification("Poll created successfully");
             // Clear form fields
             name.clear();
@@ -990,7 +1146,7 @@ public class AdminDashboard extends Application {
             }
 
             if (pollService.updatePoll(selected)) {
-                loadPollData();
+                summaryService.requestRefresh();
                 showNotification("Poll updated successfully");
             } else {
                 showNotification("Failed to update poll", true);
@@ -1014,7 +1170,7 @@ public class AdminDashboard extends Application {
 
             if (alert.showAndWait().get() == ButtonType.OK) {
                 if (pollService.deletePoll(selected.getId())) {
-                    loadPollData();
+                    summaryService.requestRefresh();
                     showNotification("Poll deleted successfully");
                 } else {
                     showNotification("Failed to delete poll", true);
@@ -1037,7 +1193,7 @@ public class AdminDashboard extends Application {
             }
 
             if (pollService.activatePoll(selected.getId())) {
-                loadPollData();
+                summaryService.requestRefresh();
                 showNotification("Poll activated successfully");
             } else {
                 showNotification("Failed to activate poll", true);
@@ -1059,7 +1215,7 @@ public class AdminDashboard extends Application {
             }
 
             if (pollService.completePoll(selected.getId())) {
-                loadPollData();
+                summaryService.requestRefresh();
                 showNotification("Poll marked as completed");
             } else {
                 showNotification("Failed to complete poll", true);
@@ -1070,10 +1226,48 @@ public class AdminDashboard extends Application {
     }
 
     /**
-     * Load poll data into the table
+     * Recount the selected poll's tallies from the recorded votes
+     */
+    private void recountPoll() {
+        Poll selected = pollTableView.getSelectionModel().getSelectedItem();
+        if (selected != null) {
+            if (tallyService.recount(selected.getId())) {
+                loadPollData();
+                summaryService.requestRefresh();
+                showNotification("Vote tallies recounted successfully");
+            } else {
+                showNotification("Failed to recount vote tallies", true);
+            }
+        } else {
+            showNotification("Please select a poll to recount", true);
+        }
+    }
+
+    /**
+     * Show a poll created, changed or deleted in this process in the poll table, in place
+     */
+    private void applyPollChange(PollChangeEvent event) {
+        switch (event.getType()) {
+            case CREATED:
+                pollPager.insert(event.getPoll());
+                break;
+            case UPDATED:
+                pollPager.update(event.getPoll());
+                break;
+            case DELETED:
+                pollPager.remove(event.getPollId());
+                break;
+        }
+    }
+
+    /**
+     * Load the first page of polls into the table; later pages load as it is scrolled
      */
     private void loadPollData() {
-        pollTableView.setItems(pollService.getAllPolls());
+        PollPage firstPage = pollService.getPolls(PollFilter.all(), PollSort.NEWEST, null, POLL_PAGE_SIZE);
+        pollPager.show(firstPage.getPolls(), firstPage.hasMore(), PollSort.NEWEST.comparator(),
+                       (last, limit) -> pollService.getPolls(PollFilter.all(), PollSort.NEWEST,
+                                                             PollPage.Key.after(last), limit).getPolls());
     }
 
     /**
@@ -0,0 +1,438 @@
+package application;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.collections.SetChangeListener;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.Separator;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import models.Poll;
+import models.VoterState;
+import services.PollChanges;
+import services.PollPage;
+import services.PollSort;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Grid of completed poll cards with their results.
+ * The grid is a ListView whose rows each hold one row of cards, so only the rows on
+ * screen have nodes, and each row cell reuses its cards when it is scrolled to other
+ * polls. Completed polls are loaded a page at a time as the grid nears the end of the
+ * loaded ones, and the results of the cards on screen are loaded in one batch.
+ *
+ * Methods must be called on the FX thread.
+ */
+class CompletedPollGrid {
+    private static final double CARD_WIDTH = 300;
+    private static final double CARD_HEIGHT = 270;
+    private static final double GAP = 15;
+
+    // Completed polls loaded at a time
+    private static final int PAGE_SIZE = 60;
+
+    // Results kept for polls scrolled off screen, so scrolling back doesn't reload them
+    private static final int RESULTS_CACHE_SIZE = 500;
+
+    private final DashboardData data;
+    private final DataAccessExecutor dataAccess;
+    private final VoterState voterState;
+    private final Consumer<Poll> onViewResults;
+
+    private final ListView<Integer> listView = new ListView<>();
+    private final Label placeholder = new Label();
+
+    private final List<Poll> polls = new ArrayList<>();
+    private PollPage.Key nextKey;
+    private boolean loadingPage;
+    private int columns = 1;
+
+    // Candidate counts by poll ID, least recently shown first
+    private final Map<Integer, int[]> results = new LinkedHashMap<Integer, int[]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, int[]> eldest) {
+            return size() > RESULTS_CACHE_SIZE;
+        }
+    };
+    // Polls whose results are wanted but not yet requested, and those being loaded
+    private final Set<Integer> wantedResults = new LinkedHashSet<>();
+    private final Set<Integer> loadingResults = new LinkedHashSet<>();
+    private boolean resultsLoadScheduled;
+    // Bumped by reload(), so a page or batch for the previous contents is dropped
+    private int generation;
+
+    /**
+     * @param data Loads the polls and results
+     * @param dataAccess Executor the loads run on
+     * @param voterState Polls the user has voted in, for the "You voted" note
+     * @param onViewResults Called with a poll when its results button is pressed
+     */
+    CompletedPollGrid(DashboardData data, DataAccessExecutor dataAccess, VoterState voterState,
+                      Consumer<Poll> onViewResults) {
+        this.data = data;
+        this.dataAccess = dataAccess;
+        this.voterState = voterState;
+        this.onViewResults = onViewResults;
+
+        placeholder.setStyle("-fx-font-style: italic; -fx-text-fill: #78909C;");
+        listView.setPlaceholder(placeholder);
+        listView.setFixedCellSize(CARD_HEIGHT + GAP);
+        listView.setPrefHeight(CARD_HEIGHT + 2 * GAP);
+        listView.setStyle("-fx-background-color: transparent; -fx-background-insets: 0; -fx-padding: 0;");
+        listView.setCellFactory(view -> new RowCell());
+        listView.widthProperty().addListener((obs, oldWidth, newWidth) -> {
+            int fit = Math.max(1, (int) ((newWidth.doubleValue() - GAP) / (CARD_WIDTH + GAP)));
+            if (fit != columns) {
+                columns = fit;
+                updateRowCount();
+            }
+        });
+        voterState.getVotedPollIds().addListener((SetChangeListener<Integer>) change -> listView.refresh());
+    }
+
+    /**
+     * @return The node to add to the scene
+     */
+    ListView<Integer> getView() {
+        return listView;
+    }
+
+    /**
+     * Drop the loaded polls and load the first page again
+     */
+    void reload() {
+        generation++;
+        polls.clear();
+        nextKey = null;
+        loadingPage = false;
+        wantedResults.clear();
+        loadingResults.clear();
+        placeholder.setText("Loading completed polls...");
+        updateRowCount();
+        loadPage();
+    }
+
+    /**
+     * Update the loaded polls from a change refresh: changed polls are patched in place
+     * and their results reloaded, deleted or reopened ones removed, and newly completed
+     * ones added if they fall among the loaded polls
+     *
+     * @param changes Changes read since the last refresh
+     */
+    void applyChanges(PollChanges changes) {
+        Map<Integer, Poll> changed = new HashMap<>();
+        for (Poll poll : changes.getChangedPolls()) {
+            changed.put(poll.getId(), poll);
+        }
+        polls.removeIf(poll -> changes.getDeletedPollIds().contains(poll.getId())
+            || (changed.containsKey(poll.getId()) && !"Completed".equals(changed.get(poll.getId()).getStatus())));
+        for (Poll shown : polls) {
+            Poll latest = changed.remove(shown.getId());
+            if (latest != null) {
+                shown.setName(latest.getName());
+                shown.setCandidate1(latest.getCandidate1());
+                shown.setCandidate2(latest.getCandidate2());
+                shown.setTotalVotes(latest.getTotalVotes());
+                results.remove(shown.getId());
+            }
+        }
+        for (Poll poll : changed.values()) {
+            if ("Completed".equals(poll.getStatus())) {
+                insert(poll);
+            }
+        }
+        updateRowCount();
+        listView.refresh();
+    }
+
+    private void insert(Poll poll) {
+        int index = 0;
+        while (index < polls.size() && PollSort.NEWEST.comparator().compare(polls.get(index), poll) < 0) {
+            index++;
+        }
+        // A poll after the last loaded one comes with its page
+        if (index < polls.size() || nextKey == null) {
+            polls.add(index, poll);
+        }
+    }
+
+    private void loadPage() {
+        if (loadingPage) {
+            return;
+        }
+        loadingPage = true;
+        int requested = generation;
+        Poll last = polls.isEmpty() ? null : polls.get(polls.size() - 1);
+        dataAccess.submit("completedPolls", () -> data.loadCompletedPollPage(last, PAGE_SIZE), page -> {
+            if (requested != generation) {
+                return;
+            }
+            loadingPage = false;
+            Set<Integer> shown = new LinkedHashSet<>();
+            for (Poll poll : polls) {
+                shown.add(poll.getId());
+            }
+            for (Poll poll : page.getPolls()) {
+                if (shown.add(poll.getId())) {
+                    polls.add(poll);
+                }
+            }
+            nextKey = page.getNextKey();
+            placeholder.setText("No completed polls available yet.");
+            updateRowCount();
+        }, error -> {
+            if (requested == generation) {
+                loadingPage = false;
+                placeholder.setText("Could not load completed polls.");
+            }
+        });
+    }
+
+    /**
+     * Make the list's rows match the loaded polls and the number of columns
+     */
+    private void updateRowCount() {
+        int rows = (polls.size() + columns - 1) / columns;
+        ObservableList<Integer> items = listView.getItems();
+        if (items.size() > rows) {
+            items.remove(rows, items.size());
+        }
+        List<Integer> added = new ArrayList<>();
+        for (int row = items.size(); row < rows; row++) {
+            added.add(row);
+        }
+        items.addAll(added);
+        // Cells keep their row index, but the polls in each row depend on the columns
+        listView.refresh();
+    }
+
+    /**
+     * Ask for a poll's results; the requests of one layout pass go out as one batch
+     */
+    private void requestResults(int pollId) {
+        if (loadingResults.contains(pollId) || !wantedResults.add(pollId) || resultsLoadScheduled) {
+            return;
+        }
+        resultsLoadScheduled = true;
+        Platform.runLater(this::loadResults);
+    }
+
+    private void loadResults() {
+        resultsLoadScheduled = false;
+        if (wantedResults.isEmpty()) {
+            return;
+        }
+        List<Integer> pollIds = new ArrayList<>(wantedResults);
+        wantedResults.clear();
+        loadingResults.addAll(pollIds);
+        int requested = generation;
+        // Not keyed: every batch is for different polls, so none replaces another
+        dataAccess.submit(null, () -> data.loadResults(pollIds), loaded -> {
+            loadingResults.removeAll(pollIds);
+            if (requested != generation) {
+                return;
+            }
+            results.putAll(loaded);
+            listView.refresh();
+        }, error -> loadingResults.removeAll(pollIds));
+    }
+
+    /**
+     * One row of cards; the cards are kept and refilled as the cell moves to other rows
+     */
+    private class RowCell extends ListCell<Integer> {
+        private final HBox row = new HBox(GAP);
+        private final List<Card> cards = new ArrayList<>();
+
+        RowCell() {
+            row.setPadding(new Insets(0, 0, GAP, 0));
+            setStyle("-fx-background-color: transparent; -fx-padding: 0;");
+        }
+
+        @Override
+        protected void updateItem(Integer rowIndex, boolean empty) {
+            super.updateItem(rowIndex, empty);
+            if (empty || rowIndex == null) {
+                setGraphic(null);
+                return;
+            }
+            while (cards.size() < columns) {
+                Card card = new Card();
+                cards.add(card);
+                row.getChildren().add(card);
+            }
+            int first = rowIndex * columns;
+            for (int i = 0; i < cards.size(); i++) {
+                Card card = cards.get(i);
+                int index = first + i;
+                boolean used = i < columns && index < polls.size();
+                card.setVisible(used);
+                card.setManaged(i < columns);
+                if (used) {
+                    Poll poll = polls.get(index);
+                    int[] counts = results.get(poll.getId());
+                    if (counts == null) {
+                        requestResults(poll.getId());
+                    }
+                    card.show(poll, counts, voterState.hasVoted(poll.getId()));
+                }
+            }
+            setGraphic(row);
+            // Start on the next page before the user reaches the last loaded row
+            if (nextKey != null && first + 2 * columns >= polls.size()) {
+                loadPage();
+            }
+        }
+    }
+
+    /**
+     * Card showing one completed poll's results
+     */
+    private class Card extends VBox {
+        private final Label nameLabel = new Label();
+        private final Label cand1Label = new Label();
+        private final ProgressBar cand1Bar = new ProgressBar(0);
+        private final Label cand1VotesLabel = new Label();
+        private final Label cand2Label = new Label();
+        private final ProgressBar cand2Bar = new ProgressBar(0);
+        private final Label cand2VotesLabel = new Label();
+        private final Label totalVotesLabel = new Label();
+        private final Label winnerLabel = new Label();
+        private final Label votedLabel = new Label("You voted in this poll");
+        private Poll poll;
+
+        Card() {
+            super(10);
+            setPadding(new Insets(15));
+            setPrefWidth(CARD_WIDTH);
+            setMinWidth(CARD_WIDTH);
+            setPrefHeight(CARD_HEIGHT);
+            setStyle(
+                "-fx-background-color: white;" +
+                "-fx-background-radius: 8px;" +
+                "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.1), 10, 0, 0, 4);" +
+                "-fx-border-radius: 8px;" +
+                "-fx-border-color: #E0E0E0;" +
+                "-fx-border-width: 1px;"
+            );
+
+            nameLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
+            nameLabel.setWrapText(true);
+            Label statusLabel = new Label("COMPLETED");
+            statusLabel.setStyle(
+                "-fx-background-color: #FF5252;" +
+                "-fx-text-fill: white;" +
+                "-fx-font-size: 10px;" +
+                "-fx-font-weight: bold;" +
+                "-fx-padding: 2px 8px;" +
+                "-fx-background-radius: 4px;"
+            );
+            HBox headerBox = new HBox(10);
+            headerBox.setAlignment(Pos.CENTER_LEFT);
+            Region spacer = new Region();
+            HBox.setHgrow(spacer, Priority.ALWAYS);
+            headerBox.getChildren().addAll(nameLabel, spacer, statusLabel);
+
+            cand1Label.setStyle("-fx-font-weight: bold;");
+            cand1Bar.setPrefWidth(Double.MAX_VALUE);
+            cand1Bar.setPrefHeight(10);
+            cand1Bar.setStyle("-fx-accent: #1976D2;");
+            cand1VotesLabel.setStyle("-fx-text-fill: #78909C; -fx-font-size: 12px;");
+            cand2Label.setStyle("-fx-font-weight: bold;");
+            cand2Bar.setPrefWidth(Double.MAX_VALUE);
+            cand2Bar.setPrefHeight(10);
+            cand2Bar.setStyle("-fx-accent: #FF5252;");
+            cand2VotesLabel.setStyle("-fx-text-fill: #78909C; -fx-font-size: 12px;");
+            totalVotesLabel.setStyle("-fx-font-weight: bold;");
+            votedLabel.setStyle("-fx-text-fill: #4CAF50; -fx-font-style: italic; -fx-font-size: 12px;");
+
+            Button viewResultsBtn = new Button("View Detailed Results");
+            viewResultsBtn.setStyle(
+                "-fx-background-color: #1976D2;" +
+                "-fx-text-fill: white;" +
+                "-fx-font-weight: bold;" +
+                "-fx-pref-width: 100%;"
+            );
+            viewResultsBtn.setPrefWidth(Double.MAX_VALUE);
+            viewResultsBtn.setOnAction(e -> onViewResults.accept(poll));
+
+            VBox content = new VBox(5);
+            content.getChildren().addAll(
+                headerBox,
+                new Separator(),
+                cand1Label,
+                cand1Bar,
+                cand1VotesLabel,
+                cand2Label,
+                cand2Bar,
+                cand2VotesLabel,
+                totalVotesLabel,
+                winnerLabel,
+                votedLabel,
+                viewResultsBtn
+            );
+            getChildren().add(content);
+        }
+
+        /**
+         * Fill the card with a poll
+         *
+         * @param poll Completed poll
+         * @param counts Candidate counts, or null while they load
+         * @param voted Whether the user voted in the poll
+         */
+        void show(Poll poll, int[] counts, boolean voted) {
+            this.poll = poll;
+            nameLabel.setText(poll.getName());
+            cand1Label.setText(poll.getCandidate1());
+            cand2Label.setText(poll.getCandidate2());
+            int totalVotes = poll.getTotalVotes();
+            totalVotesLabel.setText("Total Votes: " + totalVotes);
+            votedLabel.setVisible(voted);
+            votedLabel.setManaged(voted);
+
+            if (counts == null) {
+                cand1Bar.setProgress(0);
+                cand2Bar.setProgress(0);
+                cand1VotesLabel.setText("Loading results...");
+                cand2VotesLabel.setText("");
+                winnerLabel.setText("");
+                return;
+            }
+            int candidate1Votes = counts[0];
+            int candidate2Votes = counts[1];
+            double candidate1Percentage = totalVotes > 0 ? (double) candidate1Votes / totalVotes * 100 : 0;
+            double candidate2Percentage = totalVotes > 0 ? (double) candidate2Votes / totalVotes * 100 : 0;
+            cand1Bar.setProgress(candidate1Percentage / 100);
+            cand2Bar.setProgress(candidate2Percentage / 100);
+            cand1VotesLabel.setText(String.format("%d votes (%.1f%%)", candidate1Votes, candidate1Percentage));
+            cand2VotesLabel.setText(String.format("%d votes (%.1f%%)", candidate2Votes, candidate2Percentage));
+
+            if (candidate1Votes > candidate2Votes) {
+                winnerLabel.setText("Winner: " + poll.getCandidate1() + " 🏆");
+                winnerLabel.setStyle("-fx-text-fill: #4CAF50; -fx-font-weight: bold;");
+            } else if (candidate2Votes > candidate1Votes) {
+                winnerLabel.setText("Winner: " + poll.getCandidate2() + " 🏆");
+                winnerLabel.setStyle("-fx-text-fill: #4CAF50; -fx-font-weight: bold;");
+            } else {
+                winnerLabel.setText("Result: Tie");
+                winnerLabel.setStyle("-fx-text-fill: #FF9800; -fx-font-weight: bold;");
+            }
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package application;
+
+import logging.Log;
+import logging.Logger;
+import models.Poll;
+import models.RecentVote;
+import models.Vote;
+import services.*;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads the data shown by the user dashboard.
+ * Every method runs on the dashboard's background thread (see DataAccessExecutor)
+ * and returns an immutable snapshot for the FX thread to render. Poll objects in
+ * a snapshot are fresh copies, never the service's cached list, so the FX thread
+ * can show them while the next query runs.
+ */
+class DashboardData {
+    private static final Logger LOG = Log.getLogger(DashboardData.class);
+
+    /**
+     * Which polls the dashboard table shows
+     */
+    enum TableFilter {
+        ALL, ACTIVE, VOTED, COMPLETED;
+
+        /**
+         * @param userId Logged-in user, for the VOTED filter
+         * @return The service filter for the polls
+         */
+        PollFilter toPollFilter(int userId) {
+            switch (this) {
+                case ACTIVE:
+                    return PollFilter.withStatus("Active");
+                case COMPLETED:
+                    return PollFilter.withStatus("Completed");
+                case VOTED:
+                    return PollFilter.votedBy(userId);
+                default:
+                    return PollFilter.all();
+            }
+        }
+    }
+
+    /**
+     * Order of the polls in the table
+     */
+    static final PollSort TABLE_SORT = PollSort.NEWEST;
+
+    private final DatabaseService dbService;
+    private final PollService pollService;
+    private final VoteService voteService;
+
+    DashboardData(DatabaseService dbService, PollService pollService, VoteService voteService) {
+        this.dbService = dbService;
+        this.pollService = pollService;
+        this.voteService = voteService;
+    }
+
+    /**
+     * Load a user's profile
+     *
+     * @param email User's email
+     * @return Profile fields, empty if the user could not be loaded
+     */
+    Map<String, String> loadProfile(String email) {
+        try {
+            LOG.debug(() -> "Loading profile for login: " + email);
+            Map<String, String> profile = dbService.getUserProfile(email);
+            if (profile == null || profile.isEmpty()) {
+                LOG.warn("Could not load user profile for email: " + email);
+                return Collections.emptyMap();
+            }
+            LOG.debug(() -> "Successfully loaded profile - UserID: " + profile.get("id") +
+                            ", Name: " + profile.get("full_name"));
+            return Collections.unmodifiableMap(new HashMap<>(profile));
+        } catch (SQLException e) {
+            LOG.error("Error loading user profile: " + e.getMessage(), e);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Load the polls the user has voted in, for the session's VoterState
+     *
+     * @param userId User ID
+     * @return Voted poll IDs
+     */
+    Set<Integer> loadVotedPollIds(int userId) {
+        return Collections.unmodifiableSet(new HashSet<>(voteService.getPollsVotedByUser(userId)));
+    }
+
+    /**
+     * Load the first page of polls for the table. Voted status comes from the session's
+     * VoterState, so the table columns never query the database
+     *
+     * @param filter Polls to show
+     * @param userId Logged-in user, for the VOTED filter
+     * @param pageSize Polls per page
+     * @return Table contents
+     */
+    PollTable loadPolls(TableFilter filter, int userId, int pageSize) {
+        // Taken first, so the next delta refresh covers anything written during the load
+        PollChanges.Token token = pollService.getChangeToken();
+        PollPage page = loadPollPage(filter, userId, null, pageSize);
+        return new PollTable(filter, page, token);
+    }
+
+    /**
+     * Load a later page of polls for the table
+     *
+     * @param filter Polls to show
+     * @param userId Logged-in user, for the VOTED filter
+     * @param last Last poll already loaded, or null for the first page
+     * @param limit Most polls to return
+     * @return The page
+     */
+    PollPage loadPollPage(TableFilter filter, int userId, Poll last, int limit) {
+        PollPage.Key afterKey = last != null ? PollPage.Key.after(last) : null;
+        return pollService.getPolls(filter.toPollFilter(userId), TABLE_SORT, afterKey, limit);
+    }
+
+    /**
+     * Load the polls that changed since the table was last loaded or refreshed
+     *
+     * @param token Token from the last load or refresh
+     * @return Changes with the token for the next refresh
+     */
+    PollChanges loadChanges(PollChanges.Token token) {
+        PollChanges changes = pollService.getChangesSince(token);
+        // Keep the search index current with polls changed by other clients
+        PollSearchIndex searchIndex = PollSearchIndex.getInstance();
+        if (searchIndex != null) {
+            searchIndex.apply(changes);
+        }
+        return changes;
+    }
+
+    /**
+     * Search polls by name or candidate name. The search index is built on the first
+     * search, which takes one pass over the polls table
+     *
+     * @param query Search text
+     * @param limit Most polls to return
+     * @return Matching polls, best first
+     */
+    List<Poll> searchPolls(String query, int limit) {
+        PollSearchIndex searchIndex = PollSearchIndex.getInstance();
+        if (searchIndex == null) {
+            searchIndex = PollSearchIndex.build(pollService);
+        }
+        List<Integer> pollIds = searchIndex.search(query, limit);
+        return Collections.unmodifiableList(pollService.getPollsByIds(pollIds));
+    }
+
+    /**
+     * Load the poll counts for the stats cards
+     *
+     * @return Poll counts
+     */
+    Stats loadStats() {
+        return new Stats(pollService.getActivePollCount(), pollService.getCompletedPollCount());
+    }
+
+    /**
+     * Load a page of completed polls for the completed polls cards, newest first
+     *
+     * @param last Last poll already loaded, or null for the first page
+     * @param limit Most polls to return
+     * @return The page
+     */
+    PollPage loadCompletedPollPage(Poll last, int limit) {
+        PollPage.Key afterKey = last != null ? PollPage.Key.after(last) : null;
+        return pollService.getPolls(PollFilter.withStatus("Completed"), PollSort.NEWEST, afterKey, limit);
+    }
+
+    /**
+     * Load the candidate counts of several polls with one query
+     *
+     * @param pollIds Poll IDs
+     * @return Map from poll ID to counts, where counts[0] is candidate 1 and counts[1] is candidate 2
+     */
+    Map<Integer, int[]> loadResults(List<Integer> pollIds) {
+        return Collections.unmodifiableMap(voteService.getResults(pollIds));
+    }
+
+    /**
+     * Load a poll with its results and the user's vote
+     *
+     * @param userId User ID
+     * @param pollId Poll ID
+     * @return Details, or null if the poll no longer exists
+     */
+    PollDetails loadPollDetails(int userId, int pollId) {
+        Poll poll = pollService.getPollById(pollId);
+        if (poll == null) {
+            return null;
+        }
+        // One lookup answers both whether and how the user voted
+        Vote userVote = voteService.getUserVote(userId, pollId);
+        int[] results = voteService.getResults(Collections.singletonList(pollId)).get(pollId);
+        return new PollDetails(poll, userVote != null, userVote, results);
+    }
+
+    /**
+     * Load the user's recent voting activity for the profile view
+     *
+     * @param userId User ID
+     * @param limit Most votes to list
+     * @return The user's latest votes, newest first, at most limit of them
+     */
+    List<RecentVote> loadRecentActivity(int userId, int limit) {
+        return voteService.getRecentVotes(userId, limit);
+    }
+
+    /**
+     * Cast a vote and reload the poll it was cast in
+     *
+     * @param vote Vote to cast
+     * @return Outcome with the poll as it is after the attempt
+     */
+    VoteOutcome castVote(Vote vote) {
+        VoteResult result = voteService.castVote(vote);
+        LOG.debug(() -> "Vote result: " + result);
+        PollDetails details = loadPollDetails(vote.getUserId(), vote.getPollId());
+        return new VoteOutcome(result, details);
+    }
+
+    /**
+     * First page of polls for the table
+     */
+    static final class PollTable {
+        private final TableFilter filter;
+        private final PollPage page;
+        private final PollChanges.Token token;
+
+        PollTable(TableFilter filter, PollPage page, PollChanges.Token token) {
+            this.filter = filter;
+            this.page = page;
+            this.token = token;
+        }
+
+        TableFilter getFilter() {
+            return filter;
+        }
+
+        PollPage getPage() {
+            return page;
+        }
+
+        /**
+         * @return Change token taken before the polls were loaded, or null if it could not be read
+         */
+        PollChanges.Token getToken() {
+            return token;
+        }
+    }
+
+    /**
+     * Poll counts for the stats cards
+     */
+    static final class Stats {
+        private final int activePollCount;
+        private final int completedPollCount;
+
+        Stats(int activePollCount, int completedPollCount) {
+            this.activePollCount = activePollCount;
+            this.completedPollCount = completedPollCount;
+        }
+
+        int getActivePollCount() {
+            return activePollCount;
+        }
+
+        int getCompletedPollCount() {
+            return completedPollCount;
+        }
+    }
+
+    /**
+     * A poll with its results and the user's part in it
+     */
+    static final class PollDetails {
+        private final Poll poll;
+        private final boolean hasVoted;
+        private final Vote userVote;
+        private final int candidate1Votes;
+        private final int candidate2Votes;
+
+        PollDetails(Poll poll, boolean hasVoted, Vote userVote, int[] results) {
+            this.poll = poll;
+            this.hasVoted = hasVoted;
+            this.userVote = userVote;
+            this.candidate1Votes = results[0];
+            this.candidate2Votes = results[1];
+        }
+
+        Poll getPoll() {
+            return poll;
+        }
+
+        boolean hasVoted() {
+            return hasVoted;
+        }
+
+        /**
+         * @return The user's vote, or null if the user has not voted or it was not loaded
+         */
+        Vote getUserVote() {
+            return userVote;
+        }
+
+        int getCandidate1Votes() {
+            return candidate1Votes;
+        }
+
+        int getCandidate2Votes() {
+            return candidate2Votes;
+        }
+    }
+
+    /**
+     * Result of casting a vote
+     */
+    static final class VoteOutcome {
+        private final VoteResult result;
+        private final PollDetails details;
+
+        VoteOutcome(VoteResult result, PollDetails details) {
+            this.result = result;
+            this.details = details;
+        }
+
+        VoteResult getResult() {
+            return result;
+        }
+
+        /**
+         * @return The poll after the attempt, or null if it no longer exists
+         */
+        PollDetails getDetails() {
+            return details;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package application;
+
+import logging.Log;
+import logging.Logger;
+import javafx.concurrent.Task;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs a dashboard's database work off the JavaFX application thread.
+ * Each request is wrapped in a Task and run on one background thread, so the
+ * services (which are not thread-safe) are never used concurrently. Results are
+ * handed back on the FX thread.
+ *
+ * A request may be given a key, such as the view it fills. Submitting a new request
+ * with the same key cancels the older one, and cancel() drops requests for a view
+ * that is no longer shown. A cancelled request that is still queued never runs; one
+ * that is already running finishes, but its result is discarded. Running queries are
+ * not interrupted, because that could break the pooled connection they are using.
+ *
+ * Methods other than the constructor must be called on the FX thread.
+ */
+public class DataAccessExecutor {
+    private static final Logger LOG = Log.getLogger(DataAccessExecutor.class);
+
+    private final ExecutorService executor;
+    private final Map<String, Task<?>> pending = new HashMap<>();
+
+    /**
+     * @param name Name of the background thread
+     */
+    public DataAccessExecutor(String name) {
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Run a query in the background
+     *
+     * @param key Requests with the same key replace each other; null if the request must
+     *            never be cancelled (e.g. a write)
+     * @param query Work to run on the background thread
+     * @param onSuccess Receives the result on the FX thread
+     * @param onFailure Receives the error on the FX thread
+     * @return The task, already submitted
+     */
+    public <T> Task<T> submit(String key, Callable<T> query, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = new Task<T>() {
+            @Override
+            protected T call() throws Exception {
+                return query.call();
+            }
+        };
+        task.setOnSucceeded(e -> {
+            forget(key, task);
+            onSuccess.accept(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            forget(key, task);
+            onFailure.accept(task.getException());
+        });
+
+        if (executor.isShutdown()) {
+            // The dashboard has closed; nobody is waiting for the result
+            task.cancel(false);
+            return task;
+        }
+        if (key != null) {
+            Task<?> previous = pending.put(key, task);
+            if (previous != null) {
+                previous.cancel(false);
+            }
+        }
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Run a query in the background, logging failures
+     *
+     * @param key Requests with the same key replace each other
+     * @param query Work to run on the background thread
+     * @param onSuccess Receives the result on the FX thread
+     * @return The task, already submitted
+     */
+    public <T> Task<T> submit(String key, Callable<T> query, Consumer<T> onSuccess) {
+        return submit(key, query, onSuccess,
+                      error -> LOG.error("Background request " + key + " failed: " + error.getMessage(), error));
+    }
+
+    /**
+     * Cancel the pending requests with the given keys
+     *
+     * @param keys Request keys
+     */
+    public void cancel(String... keys) {
+        for (String key : keys) {
+            Task<?> task = pending.remove(key);
+            if (task != null) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Cancel all pending requests and let the background thread stop once the running
+     * one finishes; does not wait for it, so the FX thread is never blocked
+     */
+    public void shutdown() {
+        for (Task<?> task : pending.values()) {
+            task.cancel(false);
+        }
+        pending.clear();
+        executor.shutdown();
+    }
+
+    private void forget(String key, Task<?> task) {
+        if (key != null && pending.get(key) == task) {
+            pending.remove(key);
+        }
+    }
+}
@@ -1,4 +1,6 @@
 package application;
+import logging.Log;
+import logging.Logger;
 import javafx.application.Application;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -28,6 +30,7 @@ import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import services.DatabaseService;
 import services.DatabaseConnection;
+import services.TallyEngine;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -36,6 +39,8 @@ import java.sql.Statement;
 * inheritance
 */
 public class Login extends Application {
+    private static final Logger LOG = Log.getLogger(Login.class);
+
   
 	/**
 	 * encapsulation
@@ -114,9 +119,11 @@ public class Login extends Application {
         // Ensure the database tables exist
         try {
             dbService.setupDatabase();
+            // Load in-memory vote tallies if enabled with -Dvoting.tally.engine=true
+            TallyEngine.startIfEnabled();
         } catch (SQLException e) {
             showErrorAlert("Database Setup Error", "Failed to set up database: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Failed to set up database: " + e.getMessage(), e);
         }
     }
 
@@ -282,7 +289,7 @@ public class Login extends Application {
                 signupApp.start(new Stage());
                 primaryStage.close();
             } catch (Exception ex) {
-                ex.printStackTrace();
+                LOG.error("Error opening sign up screen: " + ex.getMessage(), ex);
             }
         });
         signupBox.getChildren().addAll(noAccountText, signupButton);
@@ -346,10 +353,10 @@ public class Login extends Application {
             errorLabel.setText("Invalid email or password. Please try again.");
         } catch (SQLException ex) {
             showErrorAlert("Login Error", "Database error: " + ex.getMessage());
-            ex.printStackTrace();
+            LOG.error("Database error during login: " + ex.getMessage(), ex);
         } catch (Exception ex) {
             showErrorAlert("System Error", "An unexpected error occurred: " + ex.getMessage());
-            ex.printStackTrace();
+            LOG.error("Unexpected error during login: " + ex.getMessage(), ex);
         }
     }
 
@@ -362,7 +369,7 @@ public class Login extends Application {
             Stage adminStage = new Stage();
             adminDashboard.start(adminStage);
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Could not open Admin Dashboard: " + e.getMessage(), e);
             showErrorAlert("Error", "Could not open Admin Dashboard: " + e.getMessage());
         }
     }
@@ -378,7 +385,7 @@ public class Login extends Application {
             Stage userStage = new Stage();
             userDashboard.start(userStage);
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Could not open User Dashboard: " + e.getMessage(), e);
             showErrorAlert("Error", "Could not open User Dashboard: " + e.getMessage());
         }
     }
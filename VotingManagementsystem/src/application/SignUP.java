@@ -1,5 +1,7 @@
 package application;
 
+import logging.Log;
+import logging.Logger;
 import javafx.application.Application;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -34,6 +36,8 @@ import java.sql.SQLException;
 import java.util.regex.Pattern;
 
 public class SignUP extends Application {
+    private static final Logger LOG = Log.getLogger(SignUP.class);
+
     
     private TextField fullNameTextField;
     private ComboBox<String> genderCombo;
@@ -336,7 +340,7 @@ public class SignUP extends Application {
                 loginApp.start(new Stage());
                 primaryStage.close();
             } catch (Exception ex) {
-                ex.printStackTrace();
+                LOG.error("Error opening login screen: " + ex.getMessage(), ex);
             }
         });
         
@@ -408,7 +412,7 @@ public class SignUP extends Application {
             }
         } catch (SQLException ex) {
             showErrorPopup("Database Error", "Error: " + ex.getMessage());
-            ex.printStackTrace();
+            LOG.error("Error registering user: " + ex.getMessage(), ex);
         }
     }
     
@@ -506,7 +510,7 @@ public class SignUP extends Application {
                 Stage currentStage = (Stage) fullNameTextField.getScene().getWindow();
                 currentStage.close();
             } catch (Exception ex) {
-                ex.printStackTrace();
+                LOG.error("Error opening login screen: " + ex.getMessage(), ex);
             }
         });
         
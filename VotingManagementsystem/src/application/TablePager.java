@@ -0,0 +1,259 @@
+package application;
+
+import logging.Log;
+import logging.Logger;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Fills a table one page at a time. The table shows the first page, and the next
+ * page is loaded in the background when the user scrolls near the bottom, so only
+ * the rows someone actually looks at are read from the database. The table itself
+ * only creates cells for the visible rows, however many pages are loaded.
+ *
+ * Methods must be called on the FX thread.
+ *
+ * @param <T> Row type
+ */
+class TablePager<T> {
+    private static final Logger LOG = Log.getLogger(TablePager.class);
+
+    // Load the next page once the user has scrolled this far down the loaded rows
+    private static final double LOAD_AHEAD = 0.9;
+
+    /**
+     * Loads the page after a row; called on the background thread
+     *
+     * @param <T> Row type
+     */
+    interface PageLoader<T> {
+        /**
+         * @param last Last row loaded so far
+         * @param limit Most rows to return
+         * @return Rows after it, in table order
+         */
+        List<T> loadAfter(T last, int limit);
+    }
+
+    private final TableView<T> table;
+    private final DataAccessExecutor dataAccess;
+    private final String requestKey;
+    private final int pageSize;
+    private final Function<T, ?> idOf;
+
+    private Comparator<T> order;
+    private PageLoader<T> loader;
+    private boolean hasMore;
+    private boolean loading;
+    // Bumped by show(), so a page for the previous contents is dropped if it arrives late
+    private int generation;
+    private ScrollBar scrollBar;
+
+    /**
+     * @param table Table to fill
+     * @param dataAccess Executor the pages are loaded on
+     * @param requestKey Request key for the page loads
+     * @param pageSize Rows per page
+     * @param idOf Identifies a row, so a row already shown is not added again
+     */
+    TablePager(TableView<T> table, DataAccessExecutor dataAccess, String requestKey, int pageSize,
+               Function<T, ?> idOf) {
+        this.table = table;
+        this.dataAccess = dataAccess;
+        this.requestKey = requestKey;
+        this.pageSize = pageSize;
+        this.idOf = idOf;
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> findScrollBar());
+    }
+
+    int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Replace the table contents with a first page
+     *
+     * @param firstPage First page, already loaded
+     * @param hasMore true if there are rows after it
+     * @param order Order the rows are in
+     * @param loader Loads the pages after it; may be null if there are none
+     */
+    void show(List<T> firstPage, boolean hasMore, Comparator<T> order, PageLoader<T> loader) {
+        dataAccess.cancel(requestKey);
+        generation++;
+        loading = false;
+        this.hasMore = hasMore;
+        this.order = order;
+        this.loader = loader;
+        table.setItems(FXCollections.observableArrayList(firstPage));
+        loadIfRoom();
+    }
+
+    /**
+     * Empty the table and drop any page still loading
+     */
+    void clear() {
+        dataAccess.cancel(requestKey);
+        generation++;
+        loading = false;
+        hasMore = false;
+        loader = null;
+        table.setItems(FXCollections.observableArrayList());
+    }
+
+    /**
+     * @return true if there are rows after the loaded ones
+     */
+    boolean hasMore() {
+        return hasMore;
+    }
+
+    /**
+     * Add a row that was not loaded, if it falls among the loaded rows. A row after
+     * the last loaded one is left for the page that will contain it
+     *
+     * @param row Row to add
+     * @return true if it was added
+     */
+    boolean insert(T row) {
+        ObservableList<T> items = table.getItems();
+        int index = 0;
+        while (index < items.size() && order.compare(items.get(index), row) < 0) {
+            index++;
+        }
+        if (index == items.size() && hasMore) {
+            return false;
+        }
+        items.add(index, row);
+        return true;
+    }
+
+    /**
+     * Show the new version of a loaded row, moving it if its place in the order changed
+     *
+     * @param row Row as it is now
+     * @return true if it was loaded
+     */
+    boolean update(T row) {
+        ObservableList<T> items = table.getItems();
+        int index = indexOf(idOf.apply(row));
+        if (index < 0) {
+            return false;
+        }
+        boolean inOrder = (index == 0 || order.compare(items.get(index - 1), row) <= 0)
+            && (index == items.size() - 1 || order.compare(row, items.get(index + 1)) <= 0);
+        if (inOrder) {
+            items.set(index, row);
+        } else {
+            items.remove(index);
+            insert(row);
+        }
+        return true;
+    }
+
+    /**
+     * Remove a loaded row
+     *
+     * @param id ID of the row
+     * @return true if it was loaded
+     */
+    boolean remove(Object id) {
+        int index = indexOf(id);
+        if (index < 0) {
+            return false;
+        }
+        table.getItems().remove(index);
+        return true;
+    }
+
+    private int indexOf(Object id) {
+        ObservableList<T> items = table.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            if (id.equals(idOf.apply(items.get(i)))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Load the next page in the background, unless one is already loading
+     */
+    void loadNextPage() {
+        ObservableList<T> items = table.getItems();
+        if (loading || !hasMore || loader == null || items.isEmpty()) {
+            return;
+        }
+        loading = true;
+        int requested = generation;
+        T last = items.get(items.size() - 1);
+        PageLoader<T> pageLoader = loader;
+        dataAccess.submit(requestKey, () -> pageLoader.loadAfter(last, pageSize), page -> {
+            if (requested != generation) {
+                return;
+            }
+            loading = false;
+            append(page);
+        }, error -> {
+            if (requested == generation) {
+                loading = false;
+            }
+            LOG.error("Error loading next page: " + error.getMessage(), error);
+        });
+    }
+
+    private void append(List<T> page) {
+        // A short page is the last one
+        hasMore = page.size() >= pageSize;
+        ObservableList<T> items = table.getItems();
+        // A row added by a refresh may also come back in a later page
+        Set<Object> shown = new HashSet<>();
+        for (T row : items) {
+            shown.add(idOf.apply(row));
+        }
+        for (T row : page) {
+            if (shown.add(idOf.apply(row))) {
+                items.add(row);
+            }
+        }
+        LOG.debug(() -> "Loaded page of " + page.size() + " rows, " + items.size() + " shown");
+        loadIfRoom();
+    }
+
+    /**
+     * Find the table's vertical scroll bar once it has a skin, and load more as it nears the end
+     */
+    private void findScrollBar() {
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                scrollBar = (ScrollBar) node;
+                scrollBar.valueProperty().addListener((obs, oldValue, newValue) -> {
+                    if (newValue.doubleValue() >= scrollBar.getMin()
+                            + (scrollBar.getMax() - scrollBar.getMin()) * LOAD_AHEAD) {
+                        loadNextPage();
+                    }
+                });
+                scrollBar.visibleProperty().addListener((obs, wasVisible, visible) -> loadIfRoom());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Keep loading while the loaded rows don't fill the table, since it can't be scrolled then
+     */
+    private void loadIfRoom() {
+        if (scrollBar != null && !scrollBar.isVisible()) {
+            loadNextPage();
+        }
+    }
+}
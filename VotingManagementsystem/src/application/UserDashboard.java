@@ -1,8 +1,13 @@
 package application;
 
+import logging.Log;
+import logging.Logger;
+import metrics.Metrics;
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
-import javafx.collections.FXCollections;
+import javafx.beans.binding.Bindings;
 import javafx.collections.ObservableList;
+import javafx.collections.SetChangeListener;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -16,34 +21,59 @@ import javafx.scene.text.TextAlignment;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import javafx.util.Duration;
 import models.Poll;
+import models.RecentVote;
 import models.Vote;
+import models.VoterState;
 import services.*;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
+import application.DashboardData.PollDetails;
+import application.DashboardData.TableFilter;
+import application.DashboardData.PollTable;
+import application.DashboardData.Stats;
+import application.DashboardData.VoteOutcome;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javafx.scene.input.Clipboard;
 import javafx.scene.input.ClipboardContent;
-import javafx.scene.layout.FlowPane;
 import javafx.scene.control.ProgressBar;
 import javafx.scene.control.Separator;
-import javafx.scene.control.ScrollPane;
 import javafx.application.Platform;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 /**
  *inheritance: public class userdashboard
  */
 public class UserDashboard extends Application {
+    private static final Logger LOG = Log.getLogger(UserDashboard.class);
+
+    // Average time between refreshes of the poll data (-Dvoting.ui.refreshSeconds)
+    private static final long REFRESH_INTERVAL_MILLIS =
+        TimeUnit.SECONDS.toMillis(Long.getLong("voting.ui.refreshSeconds", 30));
+
+    // Polls loaded into the table at a time (-Dvoting.ui.pollPageSize)
+    private static final int POLL_PAGE_SIZE = Integer.getInteger("voting.ui.pollPageSize", 50);
+
+    // Most polls a search shows
+    private static final int SEARCH_RESULT_LIMIT = 100;
+
+    // Pause in typing before the poll search runs
+    private static final Duration SEARCH_DELAY = Duration.millis(150);
+
+    // How the profile view shows when each recent vote was cast
+    private static final DateTimeFormatter ACTIVITY_TIME_FORMAT = DateTimeFormatter.ofPattern("MMM d, yyyy HH:mm");
+
     private TableView<Poll> pollTableView;
+    private TablePager<Poll> pollPager;
     
    /**
     * composition
@@ -70,17 +100,41 @@ public class UserDashboard extends Application {
     private PollService pollService;
     private VoteService voteService;
     
-    // Map to track which polls the user has voted in
-    private List<Integer> userVotedPolls;
+    // Polls the user has voted in this session; the table columns bind to it
+    private VoterState voterState = new VoterState(0);
+    
+    // Which polls the table shows, so refreshes reload the same selection
+    private TableFilter currentFilter = TableFilter.ACTIVE;
+    
+    // Text in the search box; while set, the table shows matching polls instead of pages
+    private String searchQuery = "";
+    
+    // Where the table is in the polls' change history; refreshes fetch only what changed after it
+    private PollChanges.Token changeToken;
+    
+    // Views that are filled in when their data arrives
+    private VBox availablePollsCard;
+    private VBox votedPollsCard;
+    private VBox pendingPollsCard;
+    private VBox completedPollsCard;
+    private int activePollCount = -1;
+    private CompletedPollGrid completedPollGrid;
+    private VBox activityList;
+    
+    // Queries run on a background thread; the FX thread only renders their snapshots
+    private final DashboardData data;
+    private final DataAccessExecutor dataAccess;
     
     // Scheduler for periodic UI updates
     private ScheduledExecutorService scheduler;
     
     public UserDashboard() {
         this.dbService = new DatabaseService();
-        this.pollService = new DatabasePollService();
-        this.voteService = new DatabaseVoteService();
-        this.userVotedPolls = new ArrayList<>(); // Initialize to empty list
+        this.pollService = Metrics.instrument(PollService.class, new DatabasePollService());
+        this.voteService = Metrics.instrument(VoteService.class, new DatabaseVoteService(),
+                                              result -> result == VoteResult.ERROR);
+        this.data = new DashboardData(dbService, pollService, voteService);
+        this.dataAccess = new DataAccessExecutor("dashboard-data-access");
     }
     
     // Constructor that accepts the user's email
@@ -95,39 +149,39 @@ public class UserDashboard extends Application {
     
     @Override
     public void start(Stage primaryStage) {
+        // Set up close handler to shut down the scheduler and the data access thread
+        primaryStage.setOnCloseRequest(e -> {
+            stopPeriodicUpdates();
+        });
+        
+        if (userEmail == null || userEmail.isEmpty()) {
+            showDashboard(primaryStage);
+            return;
+        }
+        
+        // The header shows the user's name, so the window opens once the profile is loaded
+        dataAccess.submit("profile", () -> data.loadProfile(userEmail), profile -> {
+            applyUserProfile(profile);
+            loadVoterState();
+            showDashboard(primaryStage);
+        }, error -> {
+            LOG.error("Error loading user profile: " + error.getMessage(), error);
+            showDashboard(primaryStage);
+        });
+    }
+    
+    /**
+     * Build and show the dashboard, then start the periodic updates
+     */
+    private void showDashboard(Stage primaryStage) {
         try {
-            // Load user profile if email is available
-            if (userEmail != null && !userEmail.isEmpty()) {
-                loadUserProfile();
-                
-                // Make sure we have a valid userId before loading votes
-                if (userId > 0) {
-                    // Debug votes table
-                    debugCheckVotes();
-                    
-                    // Load the list of polls the user has voted in
-                    refreshVotedPolls();
-                    System.out.println("Loaded " + userVotedPolls.size() + " voted polls for user " + userId);
-                } else {
-                    System.err.println("Invalid userId: " + userId + " - cannot load voted polls");
-                    userVotedPolls = new ArrayList<>();
-                }
-            } else {
-                userVotedPolls = new ArrayList<>();
-            }
-            
             setupUI(primaryStage);
             
             // Start scheduler for periodic updates
             startPeriodicUpdates();
             
-            // Set up close handler to shut down scheduler
-            primaryStage.setOnCloseRequest(e -> {
-                stopPeriodicUpdates();
-            });
-            
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Failed to start application: " + e.getMessage(), e);
             Alert alert = new Alert(Alert.AlertType.ERROR);
             alert.setTitle("Application Error");
             alert.setHeaderText("Failed to start application");
@@ -141,32 +195,40 @@ public class UserDashboard extends Application {
      */
  
     private void startPeriodicUpdates() {
-        scheduler = Executors.newSingleThreadScheduledExecutor();
-        
-        // Schedule a task to refresh poll data every 30 seconds
-        scheduler.scheduleAtFixedRate(() -> {
-            Platform.runLater(() -> {
-                // Only refresh if userId is valid
-                if (userId > 0) {
-                    refreshPollData();
-                    
-                    // If on poll details view, update it
-                    if (contentArea.getChildren().contains(pollDetailsView) && selectedPoll != null) {
-                        int currentPollId = selectedPoll.getId();
-                        // Refresh the poll object with latest data
-                        Poll updatedPoll = ((DatabasePollService)pollService).getPollById(currentPollId);
-                        if (updatedPoll != null) {
-                            selectedPoll = updatedPoll;
-                            updatePollDetailsView();
-                        }
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        // Drop the pending refresh on shutdown instead of waiting for it to fire
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        scheduler = executor;
+        scheduleNextRefresh();
+    }
+    
+    /**
+     * Schedule the next refresh. The interval varies by up to a fifth either way, so
+     * dashboards opened together don't query the database in lockstep
+     */
+    private void scheduleNextRefresh() {
+        long jitter = REFRESH_INTERVAL_MILLIS / 5;
+        long delay = REFRESH_INTERVAL_MILLIS - jitter + ThreadLocalRandom.current().nextLong(2 * jitter + 1);
+        try {
+            scheduler.schedule(() -> {
+                // Only decide what to reload here; the queries run on the data access thread
+                Platform.runLater(() -> {
+                    // Only refresh if userId is valid
+                    if (userId > 0) {
+                        refreshPollData();
                     }
+                });
+                if (!scheduler.isShutdown()) {
+                    scheduleNextRefresh();
                 }
-            });
-        }, 30, 30, TimeUnit.SECONDS);
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // The dashboard closed between the check and the schedule
+        }
     }
     
     /**
-     * Stop periodic updates when application closes
+     * Stop periodic updates and background queries when the dashboard closes
      */
     private void stopPeriodicUpdates() {
         if (scheduler != null && !scheduler.isShutdown()) {
@@ -174,150 +236,122 @@ public class UserDashboard extends Application {
             try {
                 scheduler.awaitTermination(5, TimeUnit.SECONDS);
             } catch (InterruptedException e) {
-                System.err.println("Error shutting down scheduler: " + e.getMessage());
+                LOG.error("Error shutting down scheduler: " + e.getMessage());
             }
         }
+        dataAccess.shutdown();
     }
     
     /**
-     * Debug method to directly check votes in database
+     * Apply the user profile loaded at startup
      */
-    private void debugCheckVotes() {
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement()) {
-            System.out.println("\n=== DEBUGGING VOTES TABLE CONTENT ===");
-            // Show all votes to check if they're being saved properly
-            ResultSet allVotes = stmt.executeQuery("SELECT * FROM votes");
-            System.out.println("All votes in database:");
-            while (allVotes.next()) {
-                System.out.println("Vote ID: " + allVotes.getInt("id") + 
-                                  " | User: " + allVotes.getInt("user_id") + 
-                                  " | Poll: " + allVotes.getInt("poll_id") + 
-                                  " | Candidate: " + allVotes.getInt("candidate_id"));
-            }
-            // Check specific user's votes
-            ResultSet userVotes = stmt.executeQuery("SELECT * FROM votes WHERE user_id = " + userId);
-            System.out.println("\nCurrent user's votes (user_id = " + userId + "):");
-            int count = 0;
-            while (userVotes.next()) {
-                count++;
-                System.out.println("Vote ID: " + userVotes.getInt("id") + 
-                                  " | Poll: " + userVotes.getInt("poll_id") + 
-                                  " | Candidate: " + userVotes.getInt("candidate_id"));
-            }
-            System.out.println("Total votes for user " + userId + ": " + count);
-            // Check which polls user has voted in
-            ResultSet distinctPolls = stmt.executeQuery(
-                "SELECT DISTINCT poll_id FROM votes WHERE user_id = " + userId);
-            System.out.println("\nDistinct polls voted by user " + userId + ":");
-            List<Integer> pollsVoted = new ArrayList<>();
-            while (distinctPolls.next()) {
-                int pollId = distinctPolls.getInt("poll_id");
-                pollsVoted.add(pollId);
-                System.out.println("Poll ID: " + pollId);
-            }
-            System.out.println("Total distinct polls voted: " + pollsVoted.size());
-            System.out.println("=== END OF DEBUGGING INFO ===\n");
-        } catch (SQLException e) {
-            System.err.println("Error debugging votes: " + e.getMessage());
-            e.printStackTrace();
+    private void applyUserProfile(Map<String, String> profile) {
+        userProfile = profile;
+        if (!profile.isEmpty()) {
+            currentUserName = profile.get("full_name");
+            userId = Integer.parseInt(profile.get("id"));
+        } else {
+            LOG.error("Invalid userId: " + userId + " - cannot load voted polls");
         }
     }
     
     /**
-     * Load user profile from database
+     * Load the session's voted polls, once per login. Requests run in order, so
+     * views loaded after this see the voted state.
      */
-    private void loadUserProfile() {
-        try {
-            System.out.println("\n=== USER LOGIN INFORMATION ===");
-            System.out.println("Email being used for login: " + userEmail);
-            
-            // If you're using dbService.getUserProfile
-            userProfile = dbService.getUserProfile(userEmail);
-            
-            if (userProfile != null && !userProfile.isEmpty()) {
-                currentUserName = userProfile.get("full_name");
-                userId = Integer.parseInt(userProfile.get("id"));
-                System.out.println("Successfully loaded profile - UserID: " + userId + ", Name: " + currentUserName);
-                
-                // Debug: Check if this user has any votes
-                try (Connection conn = DatabaseConnection.getConnection();
-                     PreparedStatement stmt = conn.prepareStatement(
-                         "SELECT COUNT(*) FROM votes WHERE user_id = ?")) {
-                         
-                    stmt.setInt(1, userId);
-                    ResultSet rs = stmt.executeQuery();
-                    
-                    if (rs.next()) {
-                        int voteCount = rs.getInt(1);
-                        System.out.println("This user has " + voteCount + " votes recorded in the database");
-                        
-                        // If they have votes, list the polls they've voted in
-                        if (voteCount > 0) {
-                            PreparedStatement pollStmt = conn.prepareStatement(
-                                "SELECT p.id, p.name FROM votes v " +
-                                "JOIN polls p ON v.poll_id = p.id " +
-                                "WHERE v.user_id = ?");
-                            pollStmt.setInt(1, userId);
-                            ResultSet pollRs = pollStmt.executeQuery();
-                            
-                            System.out.println("Polls voted in:");
-                            while (pollRs.next()) {
-                                System.out.println("  - Poll ID: " + pollRs.getInt("id") + 
-                                                  ", Name: " + pollRs.getString("name"));
-                            }
-                        }
-                    }
-                } catch (SQLException e) {
-                    System.err.println("Error checking user votes: " + e.getMessage());
-                }
-                
-            } else {
-                System.err.println("Could not load user profile for email: " + userEmail);
-            }
-            System.out.println("=== END USER LOGIN INFO ===\n");
-        } catch (SQLException e) {
-            System.err.println("Error loading user profile: " + e.getMessage());
+    private void loadVoterState() {
+        if (userId <= 0) {
+            return;
         }
+        VoterState state = new VoterState(userId);
+        voterState = state;
+        dataAccess.submit("voterState", () -> data.loadVotedPollIds(state.getUserId()), votedPollIds -> {
+            state.load(votedPollIds);
+            LOG.debug(() -> "Loaded " + state.getVotedCount() + " voted polls for user " + state.getUserId());
+        });
     }
     
     /**
-     * Refresh the user's voted polls list from the database
+     * Refresh the polls that changed since the table was loaded
      */
-    private void refreshVotedPolls() {
-        if (userId > 0) {
-            userVotedPolls = voteService.getPollsVotedByUser(userId);
-            System.out.println("Refreshed voted polls for user " + userId + ": " + userVotedPolls.size() + " polls");
-        } else {
-            // Initialize to empty list if userId is invalid
-            userVotedPolls = new ArrayList<>();
-            System.out.println("Cannot refresh voted polls: Invalid userId " + userId);
+    private void refreshPollData() {
+        if (changeToken == null) {
+            // No load has supplied a token yet; reload everything
+            loadPolls(currentFilter);
+            loadStats();
+            return;
         }
+        PollChanges.Token since = changeToken;
+        dataAccess.submit("pollChanges", () -> data.loadChanges(since), this::applyPollChanges);
     }
     
     /**
-     * Refresh all poll data from the database
+     * Patch the table in place with changed polls, and reload the views they affect
      */
-    private void refreshPollData() {
-        try {
-            // Refresh voted polls list
-            refreshVotedPolls();
-            
-            // Reload current table data based on what's currently shown
-            if (pollTableView.getItems() != null) {
-                if (pollTableView.getItems() == FXCollections.observableArrayList(((DatabasePollService)pollService).getAllPolls())) {
-                    loadPollData();
-                } else if (pollTableView.getItems() == FXCollections.observableArrayList(((DatabasePollService)pollService).getActivePolls())) {
-                    loadActivePolls();
-                } else if (pollTableView.getItems() == FXCollections.observableArrayList(((DatabasePollService)pollService).getCompletedPolls())) {
-                    loadCompletedPolls();
-                } else {
-                    // Must be showing voted polls
-                    loadVotedPolls();
-                }
+    private void applyPollChanges(PollChanges changes) {
+        changeToken = changes.getToken();
+        if (changes.isEmpty()) {
+            return;
+        }
+        LOG.debug(() -> changes.getChangedPolls().size() + " polls changed, "
+                        + changes.getDeletedPollIds().size() + " deleted");
+        
+        Map<Integer, Poll> changed = new LinkedHashMap<>();
+        for (Poll poll : changes.getChangedPolls()) {
+            changed.put(poll.getId(), poll);
+        }
+        Set<Integer> deleted = changes.getDeletedPollIds();
+        
+        // Drop rows that were deleted or no longer match the filter, then update the rest
+        ObservableList<Poll> items = pollTableView.getItems();
+        items.removeIf(poll -> deleted.contains(poll.getId())
+            || (changed.containsKey(poll.getId()) && !matchesFilter(changed.get(poll.getId()))));
+        boolean statusChanged = false;
+        for (Poll shown : items) {
+            Poll latest = changed.remove(shown.getId());
+            if (latest != null) {
+                statusChanged |= !latest.getStatus().equals(shown.getStatus());
+                shown.setName(latest.getName());
+                shown.setCandidate1(latest.getCandidate1());
+                shown.setCandidate2(latest.getCandidate2());
+                shown.setStatus(latest.getStatus());
+                shown.setTotalVotes(latest.getTotalVotes());
             }
-        } catch (Exception e) {
-            System.err.println("Error refreshing poll data: " + e.getMessage());
+        }
+        // Polls left over were not shown; add the ones that now belong among the loaded rows
+        for (Poll poll : changed.values()) {
+            // Search results are ranked, so a new poll waits for the next search
+            if (!deleted.contains(poll.getId()) && matchesFilter(poll) && searchQuery.isEmpty()) {
+                pollPager.insert(poll);
+            }
+        }
+        if (statusChanged) {
+            // The action buttons depend on the status
+            pollTableView.refresh();
+        }
+        
+        loadStats();
+        completedPollGrid.applyChanges(changes);
+        if (contentArea.getChildren().contains(pollDetailsView) && selectedPoll != null
+                && (changes.getChangedPolls().stream().anyMatch(poll -> poll.getId() == selectedPoll.getId())
+                    || deleted.contains(selectedPoll.getId()))) {
+            refreshPollDetails();
+        }
+    }
+    
+    /**
+     * Check whether a poll belongs in the table under the current filter
+     */
+    private boolean matchesFilter(Poll poll) {
+        switch (currentFilter) {
+            case ACTIVE:
+                return "Active".equals(poll.getStatus());
+            case COMPLETED:
+                return "Completed".equals(poll.getStatus());
+            case VOTED:
+                return voterState.hasVoted(poll.getId());
+            default:
+                return true;
         }
     }
     
@@ -349,7 +383,7 @@ public class UserDashboard extends Application {
         try {
             scene.getStylesheets().add(getClass().getResource("/resources/style1.css").toExternalForm());
         } catch (Exception e) {
-            System.out.println("CSS file not found, using inline styles");
+            LOG.debug("CSS file not found, using inline styles");
         }
         
         stage.setTitle("Voter Dashboard");
@@ -578,27 +612,34 @@ public class UserDashboard extends Application {
         searchBtn.setStyle("-fx-background-color: #1976D2; -fx-text-fill: white; -fx-font-weight: bold;");
         searchBox.getChildren().addAll(searchField, searchBtn);
         
+        // Search as the user types, once they pause; Enter or the button searches at once
+        PauseTransition searchDelay = new PauseTransition(SEARCH_DELAY);
+        searchDelay.setOnFinished(e -> searchPolls(searchField.getText()));
+        searchField.textProperty().addListener((obs, oldText, newText) -> searchDelay.playFromStart());
+        searchField.setOnAction(e -> {
+            searchDelay.stop();
+            searchPolls(searchField.getText());
+        });
+        searchBtn.setOnAction(e -> {
+            searchDelay.stop();
+            searchPolls(searchField.getText());
+        });
+        
         header.getChildren().addAll(titleSection, spacer, searchBox);
         
         // Stats section with cards in a row
         HBox statsBox = new HBox(15);
         statsBox.setPrefHeight(100);
         
-        VBox totalPollsCard = createStatsCard("Available Polls",
-            String.valueOf(pollService.getActivePollCount()), "📋", "#1976D2");
-        
-        VBox votedPollsCard = createStatsCard("Polls You Voted",
-            String.valueOf(userVotedPolls != null ? userVotedPolls.size() : 0), "✅", "#4CAF50");
+        // Values are filled in by loadStats()
+        availablePollsCard = createStatsCard("Available Polls", "…", "📋", "#1976D2");
+        votedPollsCard = createStatsCard("Polls You Voted", "…", "✅", "#4CAF50");
+        pendingPollsCard = createStatsCard("Polls Pending", "…", "❎", "#FF9800");
+        completedPollsCard = createStatsCard("Completed Polls", "…", "🏁", "#FF5252");
         
-        VBox pendingPollsCard = createStatsCard("Polls Pending",
-            String.valueOf(pollService.getActivePollCount() -
-            (userVotedPolls != null ? userVotedPolls.size() : 0)), "❎", "#FF9800");
-        
-        VBox completedPollsCard = createStatsCard("Completed Polls",
-            String.valueOf(pollService.getCompletedPollCount()), "🏁", "#FF5252");
-        
-        statsBox.getChildren().addAll(totalPollsCard, votedPollsCard, pendingPollsCard, completedPollsCard);
-        HBox.setHgrow(totalPollsCard, Priority.ALWAYS);
+        statsBox.getChildren().addAll(availablePollsCard, votedPollsCard, pendingPollsCard, completedPollsCard);
+        voterState.getVotedPollIds().addListener((SetChangeListener<Integer>) change -> showVotedStats());
+        HBox.setHgrow(availablePollsCard, Priority.ALWAYS);
         HBox.setHgrow(votedPollsCard, Priority.ALWAYS);
         HBox.setHgrow(pendingPollsCard, Priority.ALWAYS);
         HBox.setHgrow(completedPollsCard, Priority.ALWAYS);
@@ -627,9 +668,9 @@ public class UserDashboard extends Application {
         );
         
         // Add filter functionality
-        activeRadio.setOnAction(e -> loadActivePolls());
-        votedRadio.setOnAction(e -> loadVotedPolls());
-        completedRadio.setOnAction(e -> loadCompletedPolls());
+        activeRadio.setOnAction(e -> loadPolls(TableFilter.ACTIVE));
+        votedRadio.setOnAction(e -> loadPolls(TableFilter.VOTED));
+        completedRadio.setOnAction(e -> loadPolls(TableFilter.COMPLETED));
         
         // Table with card styling
         VBox tableCard = createCard();
@@ -647,6 +688,7 @@ public class UserDashboard extends Application {
         pollTableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         pollTableView.setPlaceholder(new Label("No polls found"));
         setupPollTableColumns();
+        pollPager = new TablePager<>(pollTableView, dataAccess, "pollPage", POLL_PAGE_SIZE, Poll::getId);
         
         // Double-click event handler for table rows
         pollTableView.setRowFactory(tv -> {
@@ -688,210 +730,108 @@ public class UserDashboard extends Application {
         Label sectionDesc = new Label("View final results from completed polls");
         sectionDesc.setStyle("-fx-text-fill: #78909C; -fx-font-size: 14px;");
         
-        // Create a flow pane to display completed poll cards
-        FlowPane completedPollsPane = new FlowPane();
-        completedPollsPane.setHgap(15);
-        completedPollsPane.setVgap(15);
-        completedPollsPane.setPrefWrapLength(1000); // Wrap at 1000px width
-        
-     // Force refresh of completed polls from database to ensure we have latest status
-        ObservableList<Poll> completedPolls = ((DatabasePollService)pollService).getCompletedPolls();
-        System.out.println("Found " + (completedPolls != null ? completedPolls.size() : 0) + " completed polls to display");
-
-        if (completedPolls == null || completedPolls.isEmpty()) {
-            // Show message if no completed polls
-            Label noCompletedLabel = new Label("No completed polls available yet.");
-            noCompletedLabel.setStyle("-fx-font-style: italic; -fx-text-fill: #78909C;");
-            completedPollsPane.getChildren().add(noCompletedLabel);
-        } else {
-            // Create a card for each completed poll
-            for (Poll poll : completedPolls) {
-                if (poll != null) { // Add null check
-                    VBox pollCard = createCompletedPollCard(poll);
-                    completedPollsPane.getChildren().add(pollCard);
-                }
-            }
-        }
-        
-        ScrollPane scrollPane = new ScrollPane(completedPollsPane);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setPrefHeight(250);
-        scrollPane.setStyle("-fx-background-color: transparent; -fx-background: transparent;");
+        // Cards are built only for the rows on screen, filled in by loadCompletedPollCards()
+        completedPollGrid = new CompletedPollGrid(data, dataAccess, voterState, this::showResultsPopup);
         
-        section.getChildren().addAll(sectionTitle, sectionDesc, scrollPane);
+        section.getChildren().addAll(sectionTitle, sectionDesc, completedPollGrid.getView());
         return section;
     }
     
     /**
-     * Create a card displaying a completed poll with results
+     * Load the completed poll cards from the first page
      */
-    private VBox createCompletedPollCard(Poll poll) {
-        VBox card = new VBox(10);
-        card.setPadding(new Insets(15));
-        card.setPrefWidth(300);
-        card.setPrefHeight(220);
-        card.setStyle(
-            "-fx-background-color: white;" +
-            "-fx-background-radius: 8px;" +
-            "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.1), 10, 0, 0, 4);" +
-            "-fx-border-radius: 8px;" +
-            "-fx-border-color: #E0E0E0;" +
-            "-fx-border-width: 1px;"
-        );
-        
-        // Poll name
-        Label nameLabel = new Label(poll.getName());
-        nameLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
-        nameLabel.setWrapText(true);
-        
-        // Status badge
-        Label statusLabel = new Label("COMPLETED");
-        statusLabel.setStyle(
-            "-fx-background-color: #FF5252;" +
-            "-fx-text-fill: white;" +
-            "-fx-font-size: 10px;" +
-            "-fx-font-weight: bold;" +
-            "-fx-padding: 2px 8px;" +
-            "-fx-background-radius: 4px;"
-        );
-        
-        // Horizontal layout for poll name and status
-        HBox headerBox = new HBox(10);
-        headerBox.setAlignment(Pos.CENTER_LEFT);
-        Region spacer = new Region();
-        HBox.setHgrow(spacer, Priority.ALWAYS);
-        headerBox.getChildren().addAll(nameLabel, spacer, statusLabel);
-        
-        // Candidate results
-        int totalVotes = poll.getTotalVotes();
-        int candidate1Votes = voteService.getVoteCountForCandidate(poll.getId(), 1);
-        int candidate2Votes = voteService.getVoteCountForCandidate(poll.getId(), 2);
-        double candidate1Percentage = totalVotes > 0 ? (double)candidate1Votes / totalVotes * 100 : 0;
-        double candidate2Percentage = totalVotes > 0 ? (double)candidate2Votes / totalVotes * 100 : 0;
-        
-        // Candidate 1 result
-        Label cand1Label = new Label(poll.getCandidate1());
-        cand1Label.setStyle("-fx-font-weight: bold;");
-        ProgressBar cand1Bar = new ProgressBar(candidate1Percentage / 100);
-        cand1Bar.setPrefWidth(Double.MAX_VALUE);
-        cand1Bar.setPrefHeight(10);
-        cand1Bar.setStyle("-fx-accent: #1976D2;");
-        Label cand1VotesLabel = new Label(String.format("%d votes (%.1f%%)",
-            candidate1Votes, candidate1Percentage));
-        cand1VotesLabel.setStyle("-fx-text-fill: #78909C; -fx-font-size: 12px;");
-        
-        // Candidate 2 result
-        Label cand2Label = new Label(poll.getCandidate2());
-        cand2Label.setStyle("-fx-font-weight: bold;");
-        ProgressBar cand2Bar = new ProgressBar(candidate2Percentage / 100);
-        cand2Bar.setPrefWidth(Double.MAX_VALUE);
-        cand2Bar.setPrefHeight(10);
-        cand2Bar.setStyle("-fx-accent: #FF5252;");
-        Label cand2VotesLabel = new Label(String.format("%d votes (%.1f%%)",
-                candidate2Votes, candidate2Percentage));
-            cand2VotesLabel.setStyle("-fx-text-fill: #78909C; -fx-font-size: 12px;");
-            
-            // Total votes
-            Label totalVotesLabel = new Label("Total Votes: " + totalVotes);
-            totalVotesLabel.setStyle("-fx-font-weight: bold;");
-            
-            // Winner label
-            Label winnerLabel = new Label();
-            if (candidate1Votes > candidate2Votes) {
-                winnerLabel.setText("Winner: " + poll.getCandidate1() + " 🏆");
-                winnerLabel.setStyle("-fx-text-fill: #4CAF50; -fx-font-weight: bold;");
-            } else if (candidate2Votes > candidate1Votes) {
-                winnerLabel.setText("Winner: " + poll.getCandidate2() + " 🏆");
-                winnerLabel.setStyle("-fx-text-fill: #4CAF50; -fx-font-weight: bold;");
-            } else {
-                winnerLabel.setText("Result: Tie");
-                winnerLabel.setStyle("-fx-text-fill: #FF9800; -fx-font-weight: bold;");
-            }
-            
-            // View results button
-            Button viewResultsBtn = new Button("View Detailed Results");
-            viewResultsBtn.setStyle(
-                "-fx-background-color: #1976D2;" +
-                "-fx-text-fill: white;" +
-                "-fx-font-weight: bold;" +
-                "-fx-pref-width: 100%;"
-            );
-            viewResultsBtn.setPrefWidth(Double.MAX_VALUE);
-            viewResultsBtn.setOnAction(e -> showResultsPopup(poll, candidate1Votes, candidate2Votes));
-            
-            // Check if user has voted in this poll
-            boolean hasVoted = voteService.hasUserVoted(userId, poll.getId());
-            Label votedLabel = null;
-            if (hasVoted) {
-                votedLabel = new Label("You voted in this poll");
-                votedLabel.setStyle("-fx-text-fill: #4CAF50; -fx-font-style: italic; -fx-font-size: 12px;");
-            }
-            
-            // Add all components to card
-            VBox content = new VBox(5);
-            content.getChildren().addAll(
-                headerBox,
-                new Separator(),
-                cand1Label,
-                cand1Bar,
-                cand1VotesLabel,
-                cand2Label,
-                cand2Bar,
-                cand2VotesLabel,
-                totalVotesLabel,
-                winnerLabel
-            );
-            
-            if (votedLabel != null) {
-                content.getChildren().add(votedLabel);
+    private void loadCompletedPollCards() {
+        completedPollGrid.reload();
+    }
+    
+        /**
+         * Load polls into the table in the background
+         * 
+         * @param filter Polls to show
+         */
+        private void loadPolls(TableFilter filter) {
+            currentFilter = filter;
+            if (!searchQuery.isEmpty()) {
+                searchPolls(searchQuery);
+                return;
             }
-            
-            content.getChildren().add(viewResultsBtn);
-            card.getChildren().add(content);
-            
-            return card;
+            int userId = voterState.getUserId();
+            dataAccess.submit("pollTable", () -> data.loadPolls(filter, userId, pollPager.getPageSize()),
+                              this::showPollsInTable);
         }
         
         /**
-         * Load only active polls into the table
+         * Show the first page of polls in the table; later pages load as it is scrolled.
+         * Voted status comes from the voter state
          */
-        private void loadActivePolls() {
-            pollTableView.setItems(((DatabasePollService)pollService).getActivePolls());
+        private void showPollsInTable(PollTable table) {
+            changeToken = table.getToken();
+            TableFilter filter = table.getFilter();
+            int userId = voterState.getUserId();
+            PollPage page = table.getPage();
+            pollPager.show(page.getPolls(), page.hasMore(), DashboardData.TABLE_SORT.comparator(),
+                           (last, limit) -> data.loadPollPage(filter, userId, last, limit).getPolls());
         }
         
         /**
-         * Load only polls the user has voted in
+         * Search polls by name or candidate in the background; an empty query goes back
+         * to the filtered table
+         * 
+         * @param query Search text
          */
-        private void loadVotedPolls() {
-            // Refresh the user's voted polls list first to ensure accuracy
-            if (userId > 0) {
-                userVotedPolls = voteService.getPollsVotedByUser(userId);
+        private void searchPolls(String query) {
+            searchQuery = query.trim();
+            if (searchQuery.isEmpty()) {
+                loadPolls(currentFilter);
+                return;
             }
-            
-            ObservableList<Poll> allPolls = ((DatabasePollService)pollService).getAllPolls();
-            ObservableList<Poll> votedPolls = FXCollections.observableArrayList();
-            
-            for (Poll poll : allPolls) {
-                if (voteService.hasUserVoted(userId, poll.getId())) {
-                    votedPolls.add(poll);
+            String searched = searchQuery;
+            dataAccess.submit("pollTable", () -> data.searchPolls(searched, SEARCH_RESULT_LIMIT),
+                              polls -> showSearchResults(searched, polls));
+        }
+        
+        /**
+         * Show the search results that match the current filter, best match first
+         */
+        private void showSearchResults(String query, List<Poll> polls) {
+            if (!query.equals(searchQuery)) {
+                return;
+            }
+            List<Poll> matching = new ArrayList<>(polls.size());
+            for (Poll poll : polls) {
+                if (matchesFilter(poll)) {
+                    matching.add(poll);
                 }
             }
-            
-            pollTableView.setItems(votedPolls);
+            pollPager.show(matching, false, DashboardData.TABLE_SORT.comparator(), null);
+        }
+        
+        /**
+         * Load the stats cards in the background
+         */
+        private void loadStats() {
+            dataAccess.submit("stats", () -> data.loadStats(), this::showStats);
         }
         
         /**
-         * Load only completed polls
+         * Show the stats cards
          */
-        private void loadCompletedPolls() {
-            pollTableView.setItems(((DatabasePollService)pollService).getCompletedPolls());
+        private void showStats(Stats stats) {
+            activePollCount = stats.getActivePollCount();
+            setStatsCardValue(availablePollsCard, stats.getActivePollCount());
+            setStatsCardValue(completedPollsCard, stats.getCompletedPollCount());
+            showVotedStats();
         }
         
         /**
-         * Load all polls into the table
+         * Show the stats cards that depend on the voter state
          */
-        private void loadPollData() {
-            pollTableView.setItems(((DatabasePollService)pollService).getAllPolls());
+        private void showVotedStats() {
+            if (activePollCount < 0) {
+                return;
+            }
+            setStatsCardValue(votedPollsCard, voterState.getVotedCount());
+            setStatsCardValue(pendingPollsCard, activePollCount - voterState.getVotedCount());
         }
         
         /**
@@ -900,14 +840,12 @@ public class UserDashboard extends Application {
         private void showPollListView() {
             contentArea.getChildren().clear();
             contentArea.getChildren().add(pollListView);
+            dataAccess.cancel("pollDetails", "activity");
             
-            // Refresh the user's voted polls list before loading polls
-            if (userId > 0) {
-                userVotedPolls = voteService.getPollsVotedByUser(userId);
-            }
-            
-            // Refresh the table with active polls by default
-            loadActivePolls();
+            // Refresh the stats and the table with active polls by default
+            loadStats();
+            loadPolls(TableFilter.ACTIVE);
+            loadCompletedPollCards();
         }
         
         /**
@@ -916,17 +854,38 @@ public class UserDashboard extends Application {
         private void showProfileView() {
             contentArea.getChildren().clear();
             contentArea.getChildren().add(profileView);
+            dataAccess.cancel("pollTable", "pollPage", "stats", "completedPolls", "pollDetails");
+            
+            int userId = voterState.getUserId();
+            dataAccess.submit("activity", () -> data.loadRecentActivity(userId, 5), this::showActivity);
         }
         
         /**
-         * Shows a statistics popup with voting percentages and a results button
+         * Load a poll's statistics in the background and show them in a popup
          *
          * @param poll The poll to show statistics for
          */
         private void showPollStatisticsPopup(Poll poll) {
+            int user = userId;
+            dataAccess.submit("popup", () -> data.loadPollDetails(user, poll.getId()), details -> {
+                if (details != null) {
+                    showPollStatisticsPopup(details);
+                } else {
+                    showNotification("Error: Unable to display poll details", true);
+                }
+            });
+        }
+        
+        /**
+         * Shows a statistics popup with voting percentages and a results button
+         *
+         * @param details The poll to show statistics for
+         */
+        private void showPollStatisticsPopup(PollDetails details) {
             // Check if user can view statistics
+            Poll poll = details.getPoll();
             boolean isCompleted = "Completed".equals(poll.getStatus());
-            boolean hasVoted = voteService.hasUserVoted(userId, poll.getId());
+            boolean hasVoted = details.hasVoted();
             
             // If poll is active and user hasn't voted, don't show detailed stats
             if (!isCompleted && !hasVoted) {
@@ -980,10 +939,10 @@ public class UserDashboard extends Application {
             Label distributionLabel = new Label("Vote Distribution");
             distributionLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-padding: 10 0 5 0;");
             
-            // Get actual vote counts from database
+            // Vote counts loaded with the poll
             int totalVotes = poll.getTotalVotes();
-            int candidate1Votes = voteService.getVoteCountForCandidate(poll.getId(), 1);
-            int candidate2Votes = voteService.getVoteCountForCandidate(poll.getId(), 2);
+            int candidate1Votes = details.getCandidate1Votes();
+            int candidate2Votes = details.getCandidate2Votes();
             double candidate1Percentage = totalVotes > 0 ? (double)candidate1Votes / totalVotes * 100 : 0;
             double candidate2Percentage = totalVotes > 0 ? (double)candidate2Votes / totalVotes * 100 : 0;
             
@@ -1045,7 +1004,7 @@ public class UserDashboard extends Application {
             
             // Check if user voted in this poll
             if (hasVoted) {
-                Vote userVote = voteService.getUserVote(userId, poll.getId());
+                Vote userVote = details.getUserVote();
                 if (userVote != null) {
                     String votedForCandidate = userVote.getCandidateId() == 1 ?
                         poll.getCandidate1() : poll.getCandidate2();
@@ -1080,7 +1039,7 @@ public class UserDashboard extends Application {
             Button resultsBtn = createButton("Show Results");
             resultsBtn.setStyle("-fx-background-color: #4CAF50; -fx-text-fill: white; -fx-font-weight: bold;");
             resultsBtn.setPrefWidth(150);
-            resultsBtn.setOnAction(e -> showResultsPopup(poll, candidate1Votes, candidate2Votes));
+            resultsBtn.setOnAction(e -> showResultsPopup(details));
             
             // Close button
             Button closeBtn = createButton("Close");
@@ -1106,18 +1065,35 @@ public class UserDashboard extends Application {
             statsStage.show();
         }
         
+        /**
+         * Load a poll's results in the background and show them in a popup
+         *
+         * @param poll The poll to show results for
+         */
+        private void showResultsPopup(Poll poll) {
+            int user = userId;
+            dataAccess.submit("popup", () -> data.loadPollDetails(user, poll.getId()), details -> {
+                if (details != null) {
+                    showResultsPopup(details);
+                } else {
+                    showNotification("Error: Unable to display poll details", true);
+                }
+            });
+        }
+        
         /**
          * Shows a results popup indicating who won the voting
          * Enhanced to only show detailed results for completed polls or if user has voted
          *
-         * @param poll The poll to show results for
-         * @param candidate1Votes Votes for candidate 1
-         * @param candidate2Votes Votes for candidate 2
+         * @param details The poll to show results for
          */
-        private void showResultsPopup(Poll poll, int candidate1Votes, int candidate2Votes) {
+        private void showResultsPopup(PollDetails details) {
             // Check if user can view results
+            Poll poll = details.getPoll();
+            int candidate1Votes = details.getCandidate1Votes();
+            int candidate2Votes = details.getCandidate2Votes();
             boolean isCompleted = "Completed".equals(poll.getStatus());
-            boolean hasVoted = voteService.hasUserVoted(userId, poll.getId());
+            boolean hasVoted = details.hasVoted();
             
             // If poll is active and user hasn't voted, don't show results
             if (!isCompleted && !hasVoted) {
@@ -1236,7 +1212,7 @@ public class UserDashboard extends Application {
             
             // Check if user voted
             if (hasVoted) {
-                Vote userVote = voteService.getUserVote(userId, poll.getId());
+                Vote userVote = details.getUserVote();
                 if (userVote != null) {
                     String votedForCandidate = userVote.getCandidateId() == 1 ?
                         poll.getCandidate1() : poll.getCandidate2();
@@ -1364,7 +1340,9 @@ public class UserDashboard extends Application {
             // Voting stats
             row++;
             detailsGrid.add(createProfileFieldLabel("Polls Voted"), 0, row);
-            detailsGrid.add(createProfileValueLabel(String.valueOf(userVotedPolls != null ? userVotedPolls.size() : 0)), 1, row);
+            Label votedCountLabel = createProfileValueLabel("");
+            votedCountLabel.textProperty().bind(Bindings.size(voterState.getVotedPollIds()).asString());
+            detailsGrid.add(votedCountLabel, 1, row);
             
             // Make columns responsive
             ColumnConstraints col1 = new ColumnConstraints();
@@ -1378,40 +1356,9 @@ public class UserDashboard extends Application {
             Label activityTitle = new Label("Recent Activity");
             activityTitle.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
             
-            // Get user's voted polls for recent activity
-            VBox activityList = new VBox(10);
-            ObservableList<Poll> allPolls = ((DatabasePollService)pollService).getAllPolls();
-            int activityCount = 0;
-            for (Poll poll : allPolls) {
-                if (voteService.hasUserVoted(userId, poll.getId()) && activityCount < 5) {
-                    HBox activityItem = new HBox(10);
-                    activityItem.setAlignment(Pos.CENTER_LEFT);
-                    Label activityIcon = new Label("✓");
-                    activityIcon.setStyle(
-                        "-fx-text-fill: white;" +
-                        "-fx-background-color: #4CAF50;" +
-                        "-fx-background-radius: 50%;" +
-                        "-fx-min-width: 25px;" +
-                        "-fx-min-height: 25px;" +
-                        "-fx-alignment: center;"
-                    );
-                    VBox activityDetails = new VBox(2);
-                    Label activityLabel = new Label("You voted in \"" + poll.getName() + "\"");
-                    activityLabel.setStyle("-fx-font-weight: bold;");
-                    Label activityStatus = new Label("Status: " + poll.getStatus());
-                    activityStatus.setStyle("-fx-font-size: 12px; -fx-text-fill: #78909C;");
-                    activityDetails.getChildren().addAll(activityLabel, activityStatus);
-                    activityItem.getChildren().addAll(activityIcon, activityDetails);
-                    activityList.getChildren().add(activityItem);
-                    activityCount++;
-                }
-            }
-            
-            if (activityCount == 0) {
-                Label noActivityLabel = new Label("No recent voting activity");
-                noActivityLabel.setStyle("-fx-font-style: italic; -fx-text-fill: #78909C;");
-                activityList.getChildren().add(noActivityLabel);
-            }
+            // Filled in by showActivity() each time the view is shown
+            activityList = new VBox(10);
+            activityList.getChildren().add(createPlaceholderLabel("Loading recent activity..."));
             
             activitySection.getChildren().addAll(activityTitle, activityList);
             
@@ -1452,6 +1399,40 @@ public class UserDashboard extends Application {
             return pane;
         }
         
+        /**
+         * Show the user's recent voting activity in the profile view
+         */
+        private void showActivity(List<RecentVote> recentVotes) {
+            activityList.getChildren().clear();
+            for (RecentVote vote : recentVotes) {
+                HBox activityItem = new HBox(10);
+                activityItem.setAlignment(Pos.CENTER_LEFT);
+                Label activityIcon = new Label("✓");
+                activityIcon.setStyle(
+                    "-fx-text-fill: white;" +
+                    "-fx-background-color: #4CAF50;" +
+                    "-fx-background-radius: 50%;" +
+                    "-fx-min-width: 25px;" +
+                    "-fx-min-height: 25px;" +
+                    "-fx-alignment: center;"
+                );
+                VBox activityDetails = new VBox(2);
+                Label activityLabel = new Label("You voted for " + vote.getCandidateName() +
+                    " in \"" + vote.getPollName() + "\"");
+                activityLabel.setStyle("-fx-font-weight: bold;");
+                String castAt = vote.getCastAt() != null ? vote.getCastAt().format(ACTIVITY_TIME_FORMAT) + " · " : "";
+                Label activityStatus = new Label(castAt + "Status: " + vote.getPollStatus());
+                activityStatus.setStyle("-fx-font-size: 12px; -fx-text-fill: #78909C;");
+                activityDetails.getChildren().addAll(activityLabel, activityStatus);
+                activityItem.getChildren().addAll(activityIcon, activityDetails);
+                activityList.getChildren().add(activityItem);
+            }
+            
+            if (recentVotes.isEmpty()) {
+                activityList.getChildren().add(createPlaceholderLabel("No recent voting activity"));
+            }
+        }
+        
         private Label createProfileFieldLabel(String text) {
             Label label = new Label(text + ":");
             label.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
@@ -1479,37 +1460,49 @@ public class UserDashboard extends Application {
          */
         private void showPollDetailsView(Poll poll) {
             if (poll != null) {
-                // Always get the latest poll data from database to ensure it's up to date
-                Poll latestPoll = ((DatabasePollService)pollService).getPollById(poll.getId());
-                if (latestPoll != null) {
-                    selectedPoll = latestPoll;
-                } else {
-                    selectedPoll = poll;
-                }
-                
-                updatePollDetailsView();
+                selectedPoll = poll;
+                pollDetailsView.getChildren().setAll(createPlaceholderLabel("Loading poll..."));
                 contentArea.getChildren().clear();
                 contentArea.getChildren().add(pollDetailsView);
+                dataAccess.cancel("activity");
+                
+                // Always get the latest poll data from database to ensure it's up to date
+                refreshPollDetails();
             } else {
                 showNotification("Error: Unable to display poll details", true);
             }
         }
         
+        /**
+         * Reload the selected poll in the background and show it in the details view
+         */
+        private void refreshPollDetails() {
+            int user = userId;
+            int pollId = selectedPoll.getId();
+            dataAccess.submit("pollDetails", () -> data.loadPollDetails(user, pollId), this::updatePollDetailsView);
+        }
+        
         /**
          * Update poll details view with selected poll information
+         * 
+         * @param details The poll as loaded, or null if it no longer exists
          */
-        private void updatePollDetailsView() {
+        private void updatePollDetailsView(PollDetails details) {
             VBox pane = pollDetailsView;
             pane.getChildren().clear();
             
-            if (selectedPoll == null) {
-                Label noSelectionLabel = new Label("No poll selected");
+            if (details == null) {
+                Label noSelectionLabel = new Label("This poll is no longer available");
                 pane.getChildren().add(noSelectionLabel);
                 return;
             }
+            selectedPoll = details.getPoll();
             
-            // Always get fresh data about whether the user has voted
-            boolean hasVoted = voteService.hasUserVoted(userId, selectedPoll.getId());
+            // Voted status was loaded with the poll
+            boolean hasVoted = details.hasVoted();
+            if (hasVoted) {
+                voterState.markVoted(selectedPoll.getId());
+            }
             
             // Get the poll status
             boolean isActive = "Active".equals(selectedPoll.getStatus());
@@ -1543,8 +1536,8 @@ public class UserDashboard extends Application {
                 
                 // Get the vote counts
                 int totalVotes = selectedPoll.getTotalVotes();
-                int candidate1Votes = voteService.getVoteCountForCandidate(selectedPoll.getId(), 1);
-                int candidate2Votes = voteService.getVoteCountForCandidate(selectedPoll.getId(), 2);
+                int candidate1Votes = details.getCandidate1Votes();
+                int candidate2Votes = details.getCandidate2Votes();
                 double candidate1Percentage = totalVotes > 0 ? (double)candidate1Votes / totalVotes * 100 : 0;
                 double candidate2Percentage = totalVotes > 0 ? (double)candidate2Votes / totalVotes * 100 : 0;
                 
@@ -1628,7 +1621,7 @@ public class UserDashboard extends Application {
                 userVoteBox.setAlignment(Pos.CENTER_LEFT);
                 
                 if (hasVoted) {
-                    Vote userVote = voteService.getUserVote(userId, selectedPoll.getId());
+                    Vote userVote = details.getUserVote();
                     if (userVote != null) {
                         String candidateName = userVote.getCandidateId() == 1 ?
                             selectedPoll.getCandidate1() : selectedPoll.getCandidate2();
@@ -1662,7 +1655,7 @@ public class UserDashboard extends Application {
                 Button shareBtn = createButton("Share Results");
                 shareBtn.setStyle("-fx-background-color: #1976D2; -fx-text-fill: white; -fx-font-weight: bold;");
                 shareBtn.setPrefWidth(200);
-                shareBtn.setOnAction(e -> shareResults(selectedPoll));
+                shareBtn.setOnAction(e -> shareResults(details));
                 
                 HBox shareBox = new HBox();
                 shareBox.setAlignment(Pos.CENTER);
@@ -1697,7 +1690,7 @@ public class UserDashboard extends Application {
                     votedInfo.getChildren().add(alreadyVotedLabel);
                     
                     // Try to find which candidate they voted for
-                    Vote userVote = voteService.getUserVote(userId, selectedPoll.getId());
+                    Vote userVote = details.getUserVote();
                     if (userVote != null) {
                         String candidateName = userVote.getCandidateId() == 1 ?
                             selectedPoll.getCandidate1() : selectedPoll.getCandidate2();
@@ -1773,14 +1766,8 @@ public class UserDashboard extends Application {
                         if (selectedToggle != null) {
                             int candidateId = (int) selectedToggle.getUserData();
                             
-                            // Double-check vote hasn't been cast yet through direct database check
-                            if (voteService.hasUserVoted(userId, selectedPoll.getId())) {
-                                showNotification("You have already voted in this poll. Each user can only vote once.", true);
-                                updatePollDetailsView();
-                                return;
-                            }
-                            
-                            // Cast vote with enhanced double-vote prevention
+                            // One vote per click; the view is rebuilt once the outcome arrives
+                            voteBtn.setDisable(true);
                             castVote(selectedPoll.getId(), candidateId);
                         }
                     });
@@ -1815,10 +1802,10 @@ public class UserDashboard extends Application {
                 "-fx-padding: 15px;"
             );
             
-            // Get actual vote counts from database
+            // Vote counts loaded with the poll
             int totalVotes = selectedPoll.getTotalVotes();
-            int candidate1Votes = voteService.getVoteCountForCandidate(selectedPoll.getId(), 1);
-            int candidate2Votes = voteService.getVoteCountForCandidate(selectedPoll.getId(), 2);
+            int candidate1Votes = details.getCandidate1Votes();
+            int candidate2Votes = details.getCandidate2Votes();
             double candidate1Percentage = totalVotes > 0 ? (double)candidate1Votes / totalVotes * 100 : 0;
             double candidate2Percentage = totalVotes > 0 ? (double)candidate2Votes / totalVotes * 100 : 0;
             
@@ -1903,7 +1890,7 @@ public class UserDashboard extends Application {
             
             // Check if user has voted - use the hasVoted we determined earlier
             if (hasVoted) {
-                Vote userVote = voteService.getUserVote(userId, selectedPoll.getId());
+                Vote userVote = details.getUserVote();
                 if (userVote != null) {
                     String candidateName = userVote.getCandidateId() == 1 ?
                         selectedPoll.getCandidate1() : selectedPoll.getCandidate2();
@@ -1930,84 +1917,57 @@ public class UserDashboard extends Application {
         }
         
         /**
-         * Cast a vote for the current user with enhanced double-voting prevention
+         * Cast a vote for the current user in the background
          */
         private void castVote(int pollId, int candidateId) {
-            // Use synchronized block to prevent concurrent vote attempts
-            synchronized (this) {
-                try {
-                    System.out.println("\n==== VOTE ATTEMPT DETAILS ====");
-                    System.out.println("User ID: " + userId);
-                    System.out.println("Poll ID: " + pollId);
-                    System.out.println("Candidate ID: " + candidateId);
-                    
-                    // Double-check that user ID is valid
-                    if (userId <= 0) {
-                        System.out.println("ERROR: Invalid user ID - cannot vote");
-                        showNotification("User ID is invalid. Please logout and login again.", true);
-                        return;
-                    }
-                    
-                    // Double-check with fresh database query if user has already voted
-                    boolean hasVotedInDb = voteService.hasUserVoted(userId, pollId);
-                    System.out.println("Pre-vote database check - Has user voted: " + hasVotedInDb);
-                    
-                    if (hasVotedInDb) {
-                        System.out.println("VOTE PREVENTED: User has already voted according to database check");
-                        showNotification("You have already voted in this poll. Each user can only vote once.", true);
-                        // Refresh UI immediately
-                        refreshVotedPolls();
-                        updatePollDetailsView();
-                        return;
-                    }
-                    
-                    // Now try to cast the vote
-                    Vote vote = new Vote(pollId, userId, candidateId);
-                    boolean success = voteService.castVote(vote);
-                    
-                    if (success) {
-                        System.out.println("VOTE SUCCESS: Vote was recorded in database");
-                        
-                        // Update our list of voted polls
-                        if (!userVotedPolls.contains(pollId)) {
-                            userVotedPolls.add(pollId);
-                        }
-                        
-                        // Refresh poll data from database
-                        selectedPoll = ((DatabasePollService)pollService).getPollById(pollId);
-                        
-                        // Show success message
-                        showNotification("Your vote has been cast successfully!");
-                        
-                        // Update UI
-                        refreshPollData();
-                        updatePollDetailsView();
-                    } else {
-                        // Check if vote was actually recorded despite 'failure' return
-                        boolean checkAfterAttempt = voteService.hasUserVoted(userId, pollId);
-                        System.out.println("Post-vote database check - Has user voted now: " + checkAfterAttempt);
-                        
-                        if (checkAfterAttempt) {
-                            // Vote was recorded, but return value was false
-                            System.out.println("VOTE ANOMALY: Vote appears to be recorded despite failure return");
-                            if (!userVotedPolls.contains(pollId)) {
-                                userVotedPolls.add(pollId);
-                            }
-                            showNotification("Your vote may have been recorded.", true);
-                            updatePollDetailsView();
-                        } else {
-                            // Genuinely failed to vote
-                            System.out.println("VOTE FAILURE: Vote failed - not recorded in database");
-                            showNotification("Failed to cast your vote. Please try again later.", true);
-                        }
-                    }
+            LOG.debug(() -> "Vote attempt: User " + userId + " in poll " + pollId + " for candidate " + candidateId);
+            
+            // Double-check that user ID is valid
+            if (userId <= 0) {
+                LOG.warn("Invalid user ID " + userId + " - cannot vote");
+                showNotification("User ID is invalid. Please logout and login again.", true);
+                return;
+            }
+            
+            // One round trip: the insert itself rejects duplicates and closed polls.
+            // The request has no key, so changing views never cancels a vote
+            Vote vote = new Vote(pollId, userId, candidateId);
+            dataAccess.submit(null, () -> data.castVote(vote), outcome -> showVoteOutcome(pollId, outcome), error -> {
+                LOG.error("Error during vote casting: " + error.getMessage(), error);
+                showNotification("Error: " + error.getMessage(), true);
+            });
+        }
+        
+        /**
+         * Report the outcome of a vote and show the poll as it is now
+         */
+        private void showVoteOutcome(int pollId, VoteOutcome outcome) {
+            switch (outcome.getResult()) {
+                case ACCEPTED:
+                    // Bound table cells and stats cards update themselves
+                    voterState.markVoted(pollId);
                     
-                    System.out.println("==== END VOTE ATTEMPT ====\n");
-                } catch (Exception e) {
-                    System.err.println("Error during vote casting: " + e.getMessage());
-                    e.printStackTrace();
-                    showNotification("Error: " + e.getMessage(), true);
-                }
+                    // Show success message
+                    showNotification("Your vote has been cast successfully!");
+                    refreshPollData();
+                    break;
+                case DUPLICATE:
+                    showNotification("You have already voted in this poll. Each user can only vote once.", true);
+                    voterState.markVoted(pollId);
+                    break;
+                case POLL_CLOSED:
+                    showNotification("This poll is no longer accepting votes.", true);
+                    refreshPollData();
+                    break;
+                default:
+                    showNotification("Failed to cast your vote. Please try again later.", true);
+                    break;
+            }
+            
+            // Update UI if the user is still looking at the poll
+            if (contentArea.getChildren().contains(pollDetailsView)
+                    && selectedPoll != null && selectedPoll.getId() == pollId) {
+                updatePollDetailsView(outcome.getDetails());
             }
         }
         
@@ -2040,15 +2000,16 @@ public class UserDashboard extends Application {
         /**
          * Share poll results (simulated functionality)
          */
-        private void shareResults(Poll poll) {
+        private void shareResults(PollDetails details) {
+            Poll poll = details.getPoll();
             Alert shareAlert = new Alert(Alert.AlertType.INFORMATION);
             shareAlert.setTitle("Share Results");
             shareAlert.setHeaderText("Share Poll Results");
             
             // Calculate results for the message
             int totalVotes = poll.getTotalVotes();
-            int candidate1Votes = voteService.getVoteCountForCandidate(poll.getId(), 1);
-            int candidate2Votes = voteService.getVoteCountForCandidate(poll.getId(), 2);
+            int candidate1Votes = details.getCandidate1Votes();
+            int candidate2Votes = details.getCandidate2Votes();
             String winnerName;
             
             if (candidate1Votes > candidate2Votes) {
@@ -2133,18 +2094,10 @@ public class UserDashboard extends Application {
             
             // Vote status column - shows if the user has voted in this poll
             TableColumn<Poll, String> voteStatusCol = new TableColumn<>("Your Vote");
-            voteStatusCol.setCellValueFactory(cellData -> {
-                // Always get fresh vote status directly from database for reliability
-                boolean hasVoted = voteService.hasUserVoted(userId, cellData.getValue().getId());
-                
-                // Update userVotedPolls list if needed
-                if (hasVoted && !userVotedPolls.contains(cellData.getValue().getId())) {
-                    userVotedPolls.add(cellData.getValue().getId());
-                }
-                
-                return new javafx.beans.property.SimpleStringProperty(
-                    hasVoted ? "Voted ✓" : "Not Voted");
-            });
+            voteStatusCol.setCellValueFactory(cellData ->
+                // Bound to the voter state, so the cell changes when the user votes
+                Bindings.when(voterState.votedProperty(cellData.getValue().getId()))
+                    .then("Voted ✓").otherwise("Not Voted"));
             voteStatusCol.setPrefWidth(100);
             
             // Set cell factory for vote status column to add colors
@@ -2168,11 +2121,12 @@ public class UserDashboard extends Application {
                 };
             });
             
-            // Add "Action" column with "Vote" and "Stats" buttons
-            TableColumn<Poll, Void> actionCol = new TableColumn<>("Action");
+            // Add "Action" column with "Vote" and "Stats" buttons; its value is the voted state
+            TableColumn<Poll, Boolean> actionCol = new TableColumn<>("Action");
             actionCol.setPrefWidth(180); // Increased width to accommodate both buttons
+            actionCol.setCellValueFactory(cellData -> voterState.votedProperty(cellData.getValue().getId()));
             actionCol.setCellFactory(col -> {
-                return new TableCell<Poll, Void>() {
+                return new TableCell<Poll, Boolean>() {
                     private final Button voteBtn = new Button("Vote Now");
                     private final Button statsBtn = new Button("Stats");
                     private final HBox buttonBox = new HBox(5);
@@ -2200,21 +2154,12 @@ public class UserDashboard extends Application {
                     }
                     
                     @Override
-                    protected void updateItem(Void item, boolean empty) {
-                        super.updateItem(item, empty);
-                        if (empty) {
+                    protected void updateItem(Boolean hasVoted, boolean empty) {
+                        super.updateItem(hasVoted, empty);
+                        if (empty || hasVoted == null) {
                             setGraphic(null);
                         } else {
                             Poll poll = getTableView().getItems().get(getIndex());
-                            
-                            // Always get fresh vote status directly from database
-                            boolean hasVoted = voteService.hasUserVoted(userId, poll.getId());
-                            
-                            // Update the userVotedPolls list if needed
-                            if (hasVoted && !userVotedPolls.contains(poll.getId())) {
-                                userVotedPolls.add(poll.getId());
-                            }
-                            
                             boolean isActive = "Active".equals(poll.getStatus());
                             
                             // Update vote button state
@@ -2270,6 +2215,23 @@ public class UserDashboard extends Application {
             return card;
         }
         
+        /**
+         * Show a value on a stats card made by createStatsCard()
+         */
+        private void setStatsCardValue(VBox card, int value) {
+            // The value label sits between the icon and the title
+            ((Label) card.getChildren().get(1)).setText(String.valueOf(value));
+        }
+        
+        /**
+         * Create an italic label shown while a section is loading or empty
+         */
+        private Label createPlaceholderLabel(String text) {
+            Label label = new Label(text);
+            label.setStyle("-fx-font-style: italic; -fx-text-fill: #78909C;");
+            return label;
+        }
+        
         /**
          * Create an info label
          */
@@ -2350,7 +2312,7 @@ public class UserDashboard extends Application {
                         // Close this window
                         ((Stage) contentArea.getScene().getWindow()).close();
                     } catch (Exception e) {
-                        e.printStackTrace();
+                        LOG.error("Error opening login screen: " + e.getMessage(), e);
                     }
                 }
             });
@@ -0,0 +1,198 @@
+package logging;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes log events on a background thread.
+ * Callers copy the event into a fixed-size ring buffer and return; the writer thread
+ * formats events and writes them to the console (WARN and ERROR to System.err, the
+ * rest to System.out). When the buffer is full, messages below WARN are dropped and
+ * counted rather than making the caller wait; WARN and ERROR wait for room.
+ */
+final class AsyncAppender {
+
+    private static final DateTimeFormatter TIMESTAMP =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final Event[] ring;
+    private final int mask;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    // Sequence numbers of the next slot to fill and the next slot to write
+    private long head = 0;
+    private long tail = 0;
+    private long written = 0;
+    private volatile boolean running = true;
+
+    AsyncAppender(int capacity) {
+        int size = Integer.highestOneBit(Math.max(16, capacity - 1) << 1);
+        this.ring = new Event[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = new Event();
+        }
+        this.mask = size - 1;
+        this.writer = new Thread(this::runWriter, "log-appender");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    void append(Level level, String loggerName, String message, Throwable error) {
+        long timestamp = System.currentTimeMillis();
+        String threadName = Thread.currentThread().getName();
+        lock.lock();
+        try {
+            while (head - tail == ring.length) {
+                if (level.compareTo(Level.WARN) < 0 || !running) {
+                    dropped.increment();
+                    return;
+                }
+                notFull.awaitUninterruptibly();
+            }
+            Event event = ring[(int) head & mask];
+            event.timestamp = timestamp;
+            event.level = level;
+            event.loggerName = loggerName;
+            event.threadName = threadName;
+            event.message = message;
+            event.error = error;
+            if (head++ == tail) {
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Wait (up to five seconds) until everything appended so far has been written
+     */
+    void flush() {
+        lock.lock();
+        try {
+            long target = head;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (written < target && running) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return;
+                }
+                drained.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write what is buffered and stop the writer thread
+     */
+    void shutdown() {
+        flush();
+        running = false;
+        lock.lock();
+        try {
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runWriter() {
+        StringBuilder line = new StringBuilder(256);
+        while (true) {
+            Event event;
+            lock.lock();
+            try {
+                while (head == tail) {
+                    if (!running) {
+                        return;
+                    }
+                    notEmpty.awaitUninterruptibly();
+                }
+                event = ring[(int) tail & mask].copy();
+                ring[(int) tail & mask].clear();
+                tail++;
+                notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+
+            write(event, line);
+
+            lock.lock();
+            try {
+                written++;
+                drained.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void write(Event event, StringBuilder line) {
+        line.setLength(0);
+        line.append(TIMESTAMP.format(Instant.ofEpochMilli(event.timestamp)))
+            .append(' ').append(event.level);
+        for (int i = event.level.name().length(); i < 5; i++) {
+            line.append(' ');
+        }
+        line.append(" [").append(event.threadName).append("] ")
+            .append(event.loggerName).append(" - ").append(event.message);
+        if (event.error != null) {
+            StringWriter trace = new StringWriter();
+            event.error.printStackTrace(new PrintWriter(trace));
+            line.append(System.lineSeparator()).append(trace);
+        }
+
+        PrintStream out = event.level.compareTo(Level.WARN) >= 0 ? System.err : System.out;
+        out.println(line);
+    }
+
+    /**
+     * One ring buffer slot, reused for every event written to it
+     */
+    private static final class Event {
+        private long timestamp;
+        private Level level;
+        private String loggerName;
+        private String threadName;
+        private String message;
+        private Throwable error;
+
+        private Event copy() {
+            Event copy = new Event();
+            copy.timestamp = timestamp;
+            copy.level = level;
+            copy.loggerName = loggerName;
+            copy.threadName = threadName;
+            copy.message = message;
+            copy.error = error;
+            return copy;
+        }
+
+        private void clear() {
+            message = null;
+            error = null;
+        }
+    }
+}
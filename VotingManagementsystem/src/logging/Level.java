@@ -0,0 +1,32 @@
+package logging;
+
+/**
+ * Severity of a log message, from most to least verbose
+ */
+public enum Level {
+    TRACE,
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    /** Threshold only: disables all logging */
+    OFF;
+
+    /**
+     * Parse a level name, falling back to a default for unknown names
+     *
+     * @param name Level name (case-insensitive)
+     * @param fallback Level returned if the name is null or unknown
+     * @return The matching level
+     */
+    public static Level parse(String name, Level fallback) {
+        if (name == null) {
+            return fallback;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+}
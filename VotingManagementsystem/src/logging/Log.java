@@ -0,0 +1,74 @@
+package logging;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Entry point of the logging subsystem.
+ * Loggers share one threshold level and one asynchronous appender; callers only pay
+ * for formatting and I/O on the appender's background thread.
+ *
+ * The level can be set with -Dvoting.log.level (TRACE, DEBUG, INFO, WARN, ERROR, OFF),
+ * default INFO, and the appender's buffer size with -Dvoting.log.bufferSize.
+ */
+public final class Log {
+
+    private static volatile Level level = Level.parse(System.getProperty("voting.log.level"), Level.INFO);
+    private static final AsyncAppender APPENDER = new AsyncAppender(Integer.getInteger("voting.log.bufferSize", 8192));
+    private static final Map<String, Logger> LOGGERS = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(APPENDER::shutdown, "log-appender-shutdown"));
+    }
+
+    private Log() {
+    }
+
+    /**
+     * Get the logger for a class
+     *
+     * @param type Class whose simple name is used in log lines
+     * @return Shared logger for the class
+     */
+    public static Logger getLogger(Class<?> type) {
+        return LOGGERS.computeIfAbsent(type.getSimpleName(), Logger::new);
+    }
+
+    /**
+     * @return Current threshold level
+     */
+    public static Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Change the threshold level at runtime
+     *
+     * @param newLevel Messages below this level are discarded
+     */
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    /**
+     * @return Number of messages dropped because the buffer was full
+     */
+    public static long getDroppedCount() {
+        return APPENDER.getDroppedCount();
+    }
+
+    /**
+     * Wait until every message logged so far has been written
+     */
+    public static void flush() {
+        APPENDER.flush();
+    }
+
+    static boolean isEnabled(Level messageLevel) {
+        return messageLevel.compareTo(level) >= 0 && level != Level.OFF;
+    }
+
+    static void append(Level messageLevel, String loggerName, String message, Throwable error) {
+        APPENDER.append(messageLevel, loggerName, message, error);
+    }
+}
@@ -0,0 +1,91 @@
+package logging;
+
+import java.util.function.Supplier;
+
+/**
+ * Named logger. Messages below the threshold level are discarded before any work is
+ * done; the Supplier overloads also defer building the message until it is needed, so
+ * disabled log statements on hot paths cost a single level check.
+ */
+public final class Logger {
+
+    private final String name;
+
+    Logger(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return Logger name (the simple class name)
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param level Level to check
+     * @return true if messages at this level are written
+     */
+    public boolean isEnabled(Level level) {
+        return Log.isEnabled(level);
+    }
+
+    public boolean isDebugEnabled() {
+        return Log.isEnabled(Level.DEBUG);
+    }
+
+    public void trace(Supplier<String> message) {
+        log(Level.TRACE, message, null);
+    }
+
+    public void debug(String message) {
+        log(Level.DEBUG, message, null);
+    }
+
+    public void debug(Supplier<String> message) {
+        log(Level.DEBUG, message, null);
+    }
+
+    public void info(String message) {
+        log(Level.INFO, message, null);
+    }
+
+    public void info(Supplier<String> message) {
+        log(Level.INFO, message, null);
+    }
+
+    public void warn(String message) {
+        log(Level.WARN, message, null);
+    }
+
+    public void warn(String message, Throwable error) {
+        log(Level.WARN, message, error);
+    }
+
+    public void error(String message) {
+        log(Level.ERROR, message, null);
+    }
+
+    public void error(String message, Throwable error) {
+        log(Level.ERROR, message, error);
+    }
+
+    /**
+     * Log a message at the given level
+     *
+     * @param level Message level
+     * @param message Message text
+     * @param error Optional exception whose stack trace is written after the message
+     */
+    public void log(Level level, String message, Throwable error) {
+        if (Log.isEnabled(level)) {
+            Log.append(level, name, message, error);
+        }
+    }
+
+    private void log(Level level, Supplier<String> message, Throwable error) {
+        if (Log.isEnabled(level)) {
+            Log.append(level, name, message.get(), error);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+
+/**
+ * Read-only MBean whose attributes are computed on each read.
+ * Values are numbers so JMX consoles can chart them.
+ */
+final class GaugeMBean implements DynamicMBean {
+
+    private final Map<String, Supplier<? extends Number>> gauges;
+    private final MBeanInfo info;
+
+    /**
+     * @param description Description shown by JMX consoles
+     * @param gauges Attribute names and the suppliers that compute them, in display order
+     */
+    GaugeMBean(String description, Map<String, Supplier<? extends Number>> gauges) {
+        this.gauges = gauges;
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (Map.Entry<String, Supplier<? extends Number>> entry : gauges.entrySet()) {
+            Number sample = entry.getValue().get();
+            String type = sample != null ? sample.getClass().getName() : Number.class.getName();
+            attributes.add(new MBeanAttributeInfo(entry.getKey(), type, entry.getKey(), true, false, false));
+        }
+        this.info = new MBeanInfo(GaugeMBean.class.getName(), description,
+                                  attributes.toArray(new MBeanAttributeInfo[0]),
+                                  null, new MBeanOperationInfo[0], null);
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Supplier<? extends Number> gauge = gauges.get(attribute);
+        if (gauge == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return gauge.get();
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList values = new AttributeList();
+        for (String attribute : attributes) {
+            Supplier<? extends Number> gauge = gauges.get(attribute);
+            if (gauge != null) {
+                values.add(new Attribute(attribute, gauge.get()));
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) {
+        throw new UnsupportedOperationException(actionName);
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        return info;
+    }
+}
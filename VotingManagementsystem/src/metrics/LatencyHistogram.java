@@ -0,0 +1,128 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram with log-linear buckets, in the style of HdrHistogram.
+ * Values below 64 ns get a bucket each; above that every power of two is split into
+ * 32 buckets, so any recorded value is reported within about 3% of its true value.
+ * Recording is one array increment and never allocates. Values above roughly 68 seconds
+ * are counted in the last bucket.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final int MAX_VALUE_BITS = 36;
+    static final int BUCKET_COUNT = bucketIndex((1L << MAX_VALUE_BITS) - 1) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record one measurement
+     *
+     * @param nanos Latency in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts.incrementAndGet(bucketIndex(Math.min(nanos, (1L << MAX_VALUE_BITS) - 1)));
+        count.increment();
+        sum.add(nanos);
+        long current;
+        while (nanos > (current = max.get()) && !max.compareAndSet(current, nanos)) {
+            // Retry until the max is updated or another thread recorded a larger value
+        }
+    }
+
+    /**
+     * @return Number of recorded measurements
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return Largest recorded value, in nanoseconds
+     */
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    /**
+     * @return Mean of the recorded values, in nanoseconds
+     */
+    public double getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * @param percentile Percentile between 0 and 100
+     * @return Value at or below which the given share of measurements fall, in nanoseconds
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        addCountsTo(snapshot);
+        return Math.min(percentile(snapshot, percentile), getMaxNanos());
+    }
+
+    /**
+     * Add this histogram's bucket counts to an array of BUCKET_COUNT counts
+     */
+    void addCountsTo(long[] target) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            target[i] += counts.get(i);
+        }
+    }
+
+    /**
+     * @param bucketCounts Bucket counts as filled by addCountsTo
+     * @param percentile Percentile between 0 and 100
+     * @return Highest value of the bucket holding the percentile, or 0 if there are no counts
+     */
+    static long percentile(long[] bucketCounts, double percentile) {
+        long total = 0;
+        for (long bucketCount : bucketCounts) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return highestValueInBucket(i);
+            }
+        }
+        return highestValueInBucket(bucketCounts.length - 1);
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // Keep the top SUB_BUCKET_BITS bits of the value; each shift gets its own 32 buckets
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * HALF_SUB_BUCKET_COUNT + (int) (value >>> shift);
+    }
+
+    private static long highestValueInBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / HALF_SUB_BUCKET_COUNT - 1;
+        long subBucket = index % HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
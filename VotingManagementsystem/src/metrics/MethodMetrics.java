@@ -0,0 +1,101 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call statistics for one service method.
+ * Counters cover the life of the process; latency percentiles cover a rolling window
+ * (the current interval plus the one before it) so they follow what is happening now
+ * rather than averaging over hours of history.
+ */
+final class MethodMetrics {
+
+    private final long windowNanos;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LatencyHistogram allTime = new LatencyHistogram();
+    private volatile LatencyHistogram currentWindow = new LatencyHistogram();
+    private volatile LatencyHistogram previousWindow = new LatencyHistogram();
+    private volatile long windowStart = System.nanoTime();
+
+    MethodMetrics(long windowNanos) {
+        this.windowNanos = windowNanos;
+    }
+
+    /**
+     * Mark a call as started
+     *
+     * @return Start time to pass to finished()
+     */
+    long started() {
+        inFlight.increment();
+        return System.nanoTime();
+    }
+
+    /**
+     * Mark a call as finished
+     *
+     * @param startNanos Value returned by started()
+     * @param failed true if the call threw or reported a failure
+     */
+    void finished(long startNanos, boolean failed) {
+        long now = System.nanoTime();
+        inFlight.decrement();
+        calls.increment();
+        if (failed) {
+            errors.increment();
+        }
+        if (now - windowStart >= windowNanos) {
+            rotate(now);
+        }
+        long elapsed = now - startNanos;
+        allTime.record(elapsed);
+        currentWindow.record(elapsed);
+    }
+
+    long getCalls() {
+        return calls.sum();
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    long getInFlight() {
+        return inFlight.sum();
+    }
+
+    double getMeanNanos() {
+        return allTime.getMeanNanos();
+    }
+
+    long getMaxNanos() {
+        return allTime.getMaxNanos();
+    }
+
+    /**
+     * @param percentile Percentile between 0 and 100
+     * @return Latency at the percentile over the recent window, in nanoseconds
+     */
+    long getRecentPercentileNanos(double percentile) {
+        if (System.nanoTime() - windowStart >= windowNanos) {
+            rotate(System.nanoTime());
+        }
+        long[] counts = new long[LatencyHistogram.BUCKET_COUNT];
+        previousWindow.addCountsTo(counts);
+        currentWindow.addCountsTo(counts);
+        return Math.min(LatencyHistogram.percentile(counts, percentile), allTime.getMaxNanos());
+    }
+
+    private synchronized void rotate(long now) {
+        long elapsed = now - windowStart;
+        if (elapsed < windowNanos) {
+            return;
+        }
+        // After a quiet spell longer than two windows the previous window is stale too
+        previousWindow = elapsed < 2 * windowNanos ? currentWindow : new LatencyHistogram();
+        currentWindow = new LatencyHistogram();
+        windowStart = now;
+    }
+}
@@ -0,0 +1,198 @@
+package metrics;
+
+import logging.Log;
+import logging.Logger;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Service call metrics published over JMX.
+ * instrument() wraps a service implementation in a proxy that counts calls, errors and
+ * calls in flight, and records latency histograms for every method of the interface.
+ * All instances of an interface share one MBean, votingsystem:type=Service,name=&lt;Interface&gt;,
+ * with attributes such as castVoteCalls, castVoteErrors, castVoteInFlight and
+ * castVoteP99Micros. Percentiles cover the last one to two minutes
+ * (-Dvoting.metrics.windowSeconds, default 60).
+ *
+ * Disable with -Dvoting.metrics=false; instrument() then returns the implementation as is.
+ */
+public final class Metrics {
+    private static final Logger LOG = Log.getLogger(Metrics.class);
+
+    private static final String DOMAIN = "votingsystem";
+    private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("voting.metrics"));
+    private static final long WINDOW_NANOS =
+        TimeUnit.SECONDS.toNanos(Long.getLong("voting.metrics.windowSeconds", 60));
+
+    private static final Map<Class<?>, Map<Method, MethodMetrics>> serviceMetrics = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * @return true unless metrics are disabled with -Dvoting.metrics=false
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Wrap a service so its calls are measured; a call fails when it throws
+     *
+     * @param serviceInterface Interface the caller uses
+     * @param service Implementation to wrap
+     * @return Measured service
+     */
+    public static <T> T instrument(Class<T> serviceInterface, T service) {
+        return instrument(serviceInterface, service, result -> false);
+    }
+
+    /**
+     * Wrap a service so its calls are measured.
+     * The services log and swallow SQL errors, so failures are also recognised from
+     * the returned value. For a CompletableFuture the call is measured until it completes.
+     *
+     * @param serviceInterface Interface the caller uses
+     * @param service Implementation to wrap
+     * @param isFailure Tells whether a returned value reports a failure
+     * @return Measured service
+     */
+    public static <T> T instrument(Class<T> serviceInterface, T service, Predicate<Object> isFailure) {
+        if (!ENABLED) {
+            return service;
+        }
+        Map<Method, MethodMetrics> methods = serviceMetrics.computeIfAbsent(serviceInterface, Metrics::registerService);
+        return serviceInterface.cast(Proxy.newProxyInstance(
+            serviceInterface.getClassLoader(),
+            new Class<?>[] { serviceInterface },
+            new MeasuredService(service, methods, isFailure)));
+    }
+
+    /**
+     * Publish values as the MBean votingsystem:type=&lt;type&gt;,name=&lt;name&gt;,
+     * replacing an MBean registered earlier under the same name
+     *
+     * @param type MBean type, e.g. "Cache"
+     * @param name MBean name, e.g. "voteCache"
+     * @param gauges Attribute names and the suppliers that compute them, in display order
+     */
+    public static void registerGauges(String type, String name, Map<String, Supplier<? extends Number>> gauges) {
+        if (!ENABLED) {
+            return;
+        }
+        register(type, name, new GaugeMBean(type + " " + name, new LinkedHashMap<>(gauges)));
+    }
+
+    private static Map<Method, MethodMetrics> registerService(Class<?> serviceInterface) {
+        Map<Method, MethodMetrics> methods = new HashMap<>();
+        Map<String, Integer> nameCounts = new HashMap<>();
+        for (Method method : serviceInterface.getMethods()) {
+            nameCounts.merge(method.getName(), 1, Integer::sum);
+        }
+
+        Map<String, Supplier<? extends Number>> gauges = new LinkedHashMap<>();
+        for (Method method : serviceInterface.getMethods()) {
+            MethodMetrics metrics = new MethodMetrics(WINDOW_NANOS);
+            methods.put(method, metrics);
+            // Overloads are told apart by their parameter count
+            String prefix = nameCounts.get(method.getName()) > 1
+                ? method.getName() + method.getParameterCount() : method.getName();
+            gauges.put(prefix + "Calls", metrics::getCalls);
+            gauges.put(prefix + "Errors", metrics::getErrors);
+            gauges.put(prefix + "InFlight", metrics::getInFlight);
+            gauges.put(prefix + "MeanMicros", () -> metrics.getMeanNanos() / 1000.0);
+            gauges.put(prefix + "MaxMicros", () -> metrics.getMaxNanos() / 1000.0);
+            gauges.put(prefix + "P50Micros", () -> metrics.getRecentPercentileNanos(50) / 1000.0);
+            gauges.put(prefix + "P90Micros", () -> metrics.getRecentPercentileNanos(90) / 1000.0);
+            gauges.put(prefix + "P99Micros", () -> metrics.getRecentPercentileNanos(99) / 1000.0);
+            gauges.put(prefix + "P999Micros", () -> metrics.getRecentPercentileNanos(99.9) / 1000.0);
+        }
+        register("Service", serviceInterface.getSimpleName(),
+                 new GaugeMBean("Calls to " + serviceInterface.getSimpleName(), gauges));
+        return methods;
+    }
+
+    private static void register(String type, String name, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=" + type + ",name=" + name);
+            synchronized (Metrics.class) {
+                if (server.isRegistered(objectName)) {
+                    server.unregisterMBean(objectName);
+                }
+                server.registerMBean(mbean, objectName);
+            }
+        } catch (JMException e) {
+            LOG.warn("Could not register " + type + " metrics for " + name + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Forwards calls to the wrapped service and records them
+     */
+    private static final class MeasuredService implements InvocationHandler {
+        private final Object service;
+        private final Map<Method, MethodMetrics> methods;
+        private final Predicate<Object> isFailure;
+
+        private MeasuredService(Object service, Map<Method, MethodMetrics> methods, Predicate<Object> isFailure) {
+            this.service = service;
+            this.methods = methods;
+            this.isFailure = isFailure;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            MethodMetrics metrics = methods.get(method);
+            if (metrics == null) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return invokeService(method, args);
+                }
+            }
+
+            long start = metrics.started();
+            Object result;
+            try {
+                result = invokeService(method, args);
+            } catch (Throwable e) {
+                metrics.finished(start, true);
+                throw e;
+            }
+
+            if (result instanceof CompletableFuture) {
+                ((CompletableFuture<?>) result).whenComplete(
+                    (value, error) -> metrics.finished(start, error != null || isFailure.test(value)));
+            } else {
+                metrics.finished(start, isFailure.test(result));
+            }
+            return result;
+        }
+
+        private Object invokeService(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(service, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
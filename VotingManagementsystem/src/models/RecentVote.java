@@ -0,0 +1,74 @@
+package models;
+
+import java.time.LocalDateTime;
+
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
+/**
+ * Model class representing a vote a user cast, with the poll it was cast in
+ */
+public class RecentVote {
+    private final IntegerProperty pollId;
+    private final StringProperty pollName;
+    private final StringProperty pollStatus;
+    private final StringProperty candidateName;
+    private final ObjectProperty<LocalDateTime> castAt;
+
+    /**
+     * Create a new RecentVote with all fields
+     */
+    public RecentVote(int pollId, String pollName, String pollStatus, String candidateName, LocalDateTime castAt) {
+        this.pollId = new SimpleIntegerProperty(pollId);
+        this.pollName = new SimpleStringProperty(pollName);
+        this.pollStatus = new SimpleStringProperty(pollStatus);
+        this.candidateName = new SimpleStringProperty(candidateName);
+        this.castAt = new SimpleObjectProperty<>(castAt);
+    }
+
+    // Getters
+    public int getPollId() {
+        return pollId.get();
+    }
+
+    public String getPollName() {
+        return pollName.get();
+    }
+
+    public String getPollStatus() {
+        return pollStatus.get();
+    }
+
+    public String getCandidateName() {
+        return candidateName.get();
+    }
+
+    public LocalDateTime getCastAt() {
+        return castAt.get();
+    }
+
+    // Property getters for JavaFX binding
+    public IntegerProperty pollIdProperty() {
+        return pollId;
+    }
+
+    public StringProperty pollNameProperty() {
+        return pollName;
+    }
+
+    public StringProperty pollStatusProperty() {
+        return pollStatus;
+    }
+
+    public StringProperty candidateNameProperty() {
+        return candidateName;
+    }
+
+    public ObjectProperty<LocalDateTime> castAtProperty() {
+        return castAt;
+    }
+}
@@ -0,0 +1,83 @@
+package models;
+
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.BooleanBinding;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Model class holding the polls the logged-in user has voted in, for one session.
+ * It is loaded once at login and updated when a vote is cast, so table cells bind to
+ * it instead of querying the database every time they render.
+ * Like the other JavaFX models it must only be changed on the FX thread.
+ */
+public class VoterState {
+    private final int userId;
+    private final ObservableSet<Integer> votedPollIds = FXCollections.observableSet(new HashSet<>());
+    private final ObservableSet<Integer> readOnlyVotedPollIds = FXCollections.unmodifiableObservableSet(votedPollIds);
+
+    /**
+     * Create an empty state for a user
+     */
+    public VoterState(int userId) {
+        this.userId = userId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * Replace the voted polls with ones loaded from the database
+     *
+     * @param pollIds IDs of the polls the user has voted in
+     */
+    public void load(Collection<Integer> pollIds) {
+        votedPollIds.retainAll(pollIds);
+        votedPollIds.addAll(pollIds);
+    }
+
+    /**
+     * Record that the user has voted in a poll
+     *
+     * @param pollId Poll ID
+     */
+    public void markVoted(int pollId) {
+        votedPollIds.add(pollId);
+    }
+
+    public boolean hasVoted(int pollId) {
+        return votedPollIds.contains(pollId);
+    }
+
+    public int getVotedCount() {
+        return votedPollIds.size();
+    }
+
+    /**
+     * @return A copy of the voted poll IDs, safe to hand to a background thread
+     */
+    public Set<Integer> snapshot() {
+        return new HashSet<>(votedPollIds);
+    }
+
+    // Observable getters for JavaFX binding
+    public ObservableSet<Integer> getVotedPollIds() {
+        return readOnlyVotedPollIds;
+    }
+
+    /**
+     * Whether the user has voted in a poll, updated as votes are cast.
+     * Each call makes a new binding; it only listens to the voted polls weakly, so it
+     * is collected once the cell that asked for it lets go.
+     *
+     * @param pollId Poll ID
+     * @return Binding that is true once the user has voted in the poll
+     */
+    public BooleanBinding votedProperty(int pollId) {
+        return Bindings.createBooleanBinding(() -> votedPollIds.contains(pollId), votedPollIds);
+    }
+}
@@ -0,0 +1,523 @@
+package services;
+
+import logging.Log;
+import logging.Logger;
+import metrics.LatencyHistogram;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+
+/**
+ * Bounded JDBC connection pool.
+ * Connections handed out by getConnection() are wrappers: calling close() on them
+ * returns the physical connection to the pool instead of closing it.
+ */
+public class ConnectionPool implements DataSource {
+    private static final Logger LOG = Log.getLogger(ConnectionPool.class);
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minIdle;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long validationIntervalMillis;
+    private final int statementCacheSize;
+
+    // One permit per connection that may be borrowed at the same time
+    private final Semaphore permits;
+    // Most recently returned connections are at the head (LIFO keeps hot connections in use)
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean shutdown = false;
+
+    // Statistics
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LongAdder statementCacheEvictions = new LongAdder();
+
+    private int loginTimeout = 0;
+
+    /**
+     * Create a new connection pool
+     *
+     * @param url JDBC URL
+     * @param user Database user
+     * @param password Database password
+     * @param minIdle Number of idle connections kept open even when unused
+     * @param maxSize Maximum number of connections open at the same time
+     * @param borrowTimeoutMillis How long getConnection() waits for a free connection
+     * @param idleTimeoutMillis How long a connection may sit idle before it is closed
+     * @param validationIntervalMillis Idle connections older than this are validated before reuse
+     * @param statementCacheSize Prepared statements cached per connection (0 disables the cache)
+     */
+    public ConnectionPool(String url, String user, String password, int minIdle, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long validationIntervalMillis,
+                          int statementCacheSize) {
+        if (maxSize <= 0 || minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: minIdle=" + minIdle + ", maxSize=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minIdle = minIdle;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMillis, 30_000));
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection from the pool, waiting up to the borrow timeout
+     *
+     * @return A pooled Connection; close() returns it to the pool
+     * @throws SQLException If no connection becomes available in time or connecting fails
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection");
+        }
+        if (!acquired) {
+            timeoutCount.increment();
+            throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis +
+                                          "ms waiting for a database connection (" + getStats() + ")");
+        }
+
+        try {
+            PooledConnection pooled = takeConnection(start);
+            recordWait(System.nanoTime() - start);
+            borrowCount.increment();
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections always use the configured credentials");
+    }
+
+    /**
+     * Get a snapshot of the pool statistics
+     *
+     * @return Current pool statistics
+     */
+    public PoolStats getStats() {
+        int total = totalConnections.get();
+        int idleCount = idle.size();
+        return new PoolStats(
+            total,
+            idleCount,
+            maxSize - permits.availablePermits(),
+            permits.getQueueLength(),
+            borrowCount.sum(),
+            createdCount.sum(),
+            destroyedCount.sum(),
+            timeoutCount.sum(),
+            validationFailures.sum(),
+            totalWaitNanos.sum(),
+            maxWaitNanos.get(),
+            statementCacheHits.sum(),
+            statementCacheMisses.sum(),
+            statementCacheEvictions.sum()
+        );
+    }
+
+    /**
+     * @return Distribution of the time borrowers waited for a connection
+     */
+    public LatencyHistogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    /**
+     * Close all idle connections and refuse further borrows.
+     * Connections still borrowed are closed when they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    /**
+     * Find a usable idle connection or open a new one. The caller holds a permit.
+     */
+    private PooledConnection takeConnection(long start) throws SQLException {
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        while (true) {
+            PooledConnection pooled = idle.pollFirst();
+            if (pooled == null && reserveSlot()) {
+                return openConnection();
+            }
+            if (pooled == null) {
+                // Pool is at max size but the evictor is briefly holding an idle connection
+                long remaining = deadline - System.nanoTime();
+                try {
+                    pooled = idle.pollFirst(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a database connection");
+                }
+                if (pooled == null) {
+                    timeoutCount.increment();
+                    throw new SQLTimeoutException("Timed out waiting for an idle database connection");
+                }
+            }
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            destroy(pooled);
+        }
+    }
+
+    /**
+     * Check an idle connection before handing it out again
+     */
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - pooled.lastUsed > validationIntervalMillis &&
+                    !pooled.physical.isValid(2)) {
+                validationFailures.increment();
+                return false;
+            }
+            return true;
+        } catch (SQLException e) {
+            validationFailures.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Reserve room for one more physical connection without exceeding maxSize
+     */
+    private boolean reserveSlot() {
+        while (true) {
+            int current = totalConnections.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (totalConnections.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Open a new physical connection for a slot already reserved with reserveSlot()
+     */
+    private PooledConnection openConnection() throws SQLException {
+        try {
+            Connection physical = DriverManager.getConnection(url, user, password);
+            createdCount.increment();
+            return new PooledConnection(physical);
+        } catch (SQLException | RuntimeException e) {
+            totalConnections.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Return a borrowed connection to the pool (called when a handle is closed)
+     */
+    private void release(PooledConnection pooled) {
+        try {
+            if (shutdown || pooled.isBroken() || !resetState(pooled)) {
+                destroy(pooled);
+            } else {
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Undo anything a borrower may have left behind so the next borrower gets a clean connection
+     */
+    private boolean resetState(PooledConnection pooled) {
+        try {
+            Connection physical = pooled.physical;
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            physical.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Close a physical connection and free its slot
+     */
+    private void destroy(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        destroyedCount.increment();
+        if (pooled.statementCache != null) {
+            pooled.statementCache.clear();
+        }
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            // Connection is being discarded anyway
+        }
+    }
+
+    /**
+     * Close connections idle longer than the idle timeout, then top the pool back up to minIdle
+     */
+    private void evictIdleConnections() {
+        if (shutdown) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext() && totalConnections.get() > minIdle) {
+            PooledConnection pooled = oldestFirst.next();
+            if (now - pooled.lastUsed > idleTimeoutMillis && idle.remove(pooled)) {
+                destroy(pooled);
+            }
+        }
+
+        while (totalConnections.get() < minIdle && reserveSlot()) {
+            try {
+                idle.offerLast(openConnection());
+            } catch (SQLException e) {
+                LOG.warn("Connection pool could not open idle connection: " + e.getMessage());
+                break;
+            }
+        }
+    }
+
+    private void recordWait(long waited) {
+        totalWaitNanos.add(waited);
+        waitTimes.record(waited);
+        long max;
+        while (waited > (max = maxWaitNanos.get()) && !maxWaitNanos.compareAndSet(max, waited)) {
+            // Retry until the max is updated or another thread recorded a longer wait
+        }
+    }
+
+    // DataSource plumbing
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return DriverManager.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        DriverManager.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        this.loginTimeout = seconds;
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return loginTimeout;
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * A physical connection owned by the pool
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statementCache;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile boolean broken = false;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statementCache = statementCacheSize > 0
+                ? new StatementCache(physical, statementCacheSize,
+                                     statementCacheHits, statementCacheMisses, statementCacheEvictions)
+                : null;
+        }
+
+        private boolean isBroken() {
+            return broken || (statementCache != null && statementCache.hasConnectionFailed());
+        }
+
+        /**
+         * Create the Connection object handed to a borrower
+         */
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new Handle(this));
+        }
+    }
+
+    /**
+     * Borrower's view of a pooled connection. close() returns the connection to the pool,
+     * and any statements the borrower forgot to close are closed with it.
+     * prepareStatement(sql) is served from the connection's statement cache.
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final List<Statement> openStatements = new ArrayList<>();
+        private boolean closed = false;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pooled.physical;
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection is closed");
+            }
+
+            if (pooled.statementCache != null && "prepareStatement".equals(method.getName()) && args.length == 1) {
+                try {
+                    PreparedStatement statement = pooled.statementCache.prepare((String) args[0]);
+                    openStatements.add(statement);
+                    return statement;
+                } catch (SQLException e) {
+                    String state = e.getSQLState();
+                    if (state != null && state.startsWith("08")) {
+                        pooled.broken = true;
+                    }
+                    throw e;
+                }
+            }
+
+            try {
+                Object result = method.invoke(pooled.physical, args);
+                if (result instanceof Statement) {
+                    openStatements.add((Statement) result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException) {
+                    String state = ((SQLException) cause).getSQLState();
+                    // SQLState class 08 means the connection itself failed
+                    if (state != null && state.startsWith("08")) {
+                        pooled.broken = true;
+                    }
+                }
+                throw cause;
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Statement statement : openStatements) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    // Statement may already be closed by the borrower
+                }
+            }
+            openStatements.clear();
+            release(pooled);
+        }
+    }
+}
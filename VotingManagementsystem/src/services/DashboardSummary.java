@@ -0,0 +1,78 @@
+package services;
+
+/**
+ * Immutable snapshot of the counts shown on the admin dashboard cards
+ */
+public class DashboardSummary {
+    private final int userCount;
+    private final int pollCount;
+    private final int activePollCount;
+    private final int completedPollCount;
+    private final int totalVoteCount;
+    private final long loadedAtMillis;
+
+    /**
+     * Create a new DashboardSummary with all fields
+     */
+    public DashboardSummary(int userCount, int pollCount, int activePollCount, int completedPollCount,
+                            int totalVoteCount, long loadedAtMillis) {
+        this.userCount = userCount;
+        this.pollCount = pollCount;
+        this.activePollCount = activePollCount;
+        this.completedPollCount = completedPollCount;
+        this.totalVoteCount = totalVoteCount;
+        this.loadedAtMillis = loadedAtMillis;
+    }
+
+    /**
+     * All counts zero, for when nothing could be loaded
+     */
+    public static DashboardSummary empty() {
+        return new DashboardSummary(0, 0, 0, 0, 0, 0);
+    }
+
+    public int getUserCount() {
+        return userCount;
+    }
+
+    public int getPollCount() {
+        return pollCount;
+    }
+
+    public int getActivePollCount() {
+        return activePollCount;
+    }
+
+    public int getCompletedPollCount() {
+        return completedPollCount;
+    }
+
+    public int getTotalVoteCount() {
+        return totalVoteCount;
+    }
+
+    /**
+     * @return When the counts were loaded, in System.currentTimeMillis() time; 0 if never
+     */
+    public long getLoadedAtMillis() {
+        return loadedAtMillis;
+    }
+
+    /**
+     * @return true if every count is the same as in the other snapshot
+     */
+    public boolean hasSameCounts(DashboardSummary other) {
+        return other != null
+            && userCount == other.userCount
+            && pollCount == other.pollCount
+            && activePollCount == other.activePollCount
+            && completedPollCount == other.completedPollCount
+            && totalVoteCount == other.totalVoteCount;
+    }
+
+    @Override
+    public String toString() {
+        return "DashboardSummary[users=" + userCount + ", polls=" + pollCount + ", active=" + activePollCount +
+               ", completed=" + completedPollCount + ", votes=" + totalVoteCount + "]";
+    }
+}
@@ -0,0 +1,40 @@
+package services;
+
+import java.util.function.Consumer;
+
+/**
+ * Service interface for the counts shown on the admin dashboard cards
+ */
+public interface DashboardSummaryService {
+    /**
+     * Get the cached counts, loading them first if there are none or they are older than the TTL
+     * 
+     * @return Latest snapshot
+     */
+    DashboardSummary getSummary();
+    
+    /**
+     * Reload the counts in the background, e.g. after the admin creates or deletes a poll.
+     * Listeners are told if anything changed.
+     */
+    void requestRefresh();
+    
+    /**
+     * Register a listener for changed counts
+     * 
+     * @param listener Receives each new snapshot on the background refresh thread
+     */
+    void addListener(Consumer<DashboardSummary> listener);
+    
+    /**
+     * Remove a listener added with addListener
+     * 
+     * @param listener Listener to remove
+     */
+    void removeListener(Consumer<DashboardSummary> listener);
+    
+    /**
+     * Stop the background refresh
+     */
+    void shutdown();
+}
@@ -1,54 +1,154 @@
 package services;
 
+import metrics.LatencyHistogram;
+import metrics.Metrics;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
 
 /**
- * Provides database connection functionality for the application
+ * Provides database connection functionality for the application.
+ * Connections come from a shared pool; closing a connection returns it to the pool.
  */
 public class DatabaseConnection {
-    
+
     // Database connection parameters - modify these to match your database setup
-    private static final String URL = "jdbc:mysql://localhost:3307/votes_database";
-    private static final String USER = "root";
-    private static final String PASSWORD = "1928374650@Asd"; // Add your password if needed
-    
-    private static Connection connection = null;
+    // (each can also be overridden with a -Dvoting.db.* system property)
+    private static final String URL = withAffectedRows(withServerPrepare(
+        System.getProperty("voting.db.url", "jdbc:mysql://localhost:3307/votes_database")));
+    private static final String USER = System.getProperty("voting.db.user", "root");
+    private static final String PASSWORD = System.getProperty("voting.db.password", "1928374650@Asd"); // Add your password if needed
+
+    // Connection pool settings
+    private static final int POOL_MIN_IDLE = Integer.getInteger("voting.db.pool.minIdle", 2);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("voting.db.pool.maxSize", 10);
+    private static final long POOL_BORROW_TIMEOUT_MILLIS = Long.getLong("voting.db.pool.borrowTimeoutMillis", 5000);
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = Long.getLong("voting.db.pool.idleTimeoutMillis", 5 * 60 * 1000);
+    private static final long POOL_VALIDATION_INTERVAL_MILLIS = Long.getLong("voting.db.pool.validationIntervalMillis", 30 * 1000);
     
+    // Prepared statements cached per pooled connection (0 disables the cache)
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("voting.db.statementCacheSize", 64);
+
+    private static volatile ConnectionPool pool = null;
+
     /**
-     * Gets a connection to the database
+     * Gets a connection to the database from the pool.
+     * Callers should close the connection (try-with-resources) to return it to the pool.
+     *
      * @return A Connection object
      * @throws SQLException If connection fails
      */
     public static Connection getConnection() throws SQLException {
         try {
-            // Load MySQL JDBC driver
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            
-            // Create new connection if none exists or if current one is closed
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(URL, USER, PASSWORD);
-            }
-            
-            return connection;
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC Driver not found: " + e.getMessage());
+            return getPool().getConnection();
         } catch (SQLException e) {
-            throw new SQLException("Database connection error: " + e.getMessage());
+            throw new SQLException("Database connection error: " + e.getMessage(), e.getSQLState(), e);
         }
     }
-    
+
     /**
-     * Closes the database connection
+     * Gets the pooled DataSource behind getConnection()
+     *
+     * @return The shared connection pool
+     * @throws SQLException If the JDBC driver cannot be loaded
      */
-    public static void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
+    public static DataSource getDataSource() throws SQLException {
+        return getPool();
+    }
+
+    /**
+     * Gets a snapshot of the connection pool statistics
+     *
+     * @return Pool statistics, or null if the pool has not been created yet
+     */
+    public static PoolStats getPoolStats() {
+        ConnectionPool current = pool;
+        return current != null ? current.getStats() : null;
+    }
+
+    /**
+     * Closes all pooled database connections
+     */
+    public static synchronized void closeConnection() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * Turn on server-side prepared statements for MySQL when -Dvoting.db.serverPrepare=true,
+     * so cached statements also skip the server's parse and plan
+     */
+    private static String withServerPrepare(String url) {
+        if (!Boolean.getBoolean("voting.db.serverPrepare") || !url.startsWith("jdbc:mysql:") ||
+                url.contains("useServerPrepStmts")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + "useServerPrepStmts=true";
+    }
+
+    /**
+     * Have MySQL report changed rather than matched rows, so an insert that hits
+     * ON DUPLICATE KEY UPDATE id = id counts as 0 rows instead of 1
+     */
+    private static String withAffectedRows(String url) {
+        if (!url.startsWith("jdbc:mysql:") || url.contains("useAffectedRows")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + "useAffectedRows=true";
+    }
+
+    /**
+     * Publish the pool's statistics and borrow wait times over JMX
+     */
+    private static void registerPoolMetrics(ConnectionPool pool) {
+        LatencyHistogram waits = pool.getWaitTimes();
+        Map<String, Supplier<? extends Number>> gauges = new LinkedHashMap<>();
+        gauges.put("TotalConnections", () -> pool.getStats().getTotalConnections());
+        gauges.put("ActiveConnections", () -> pool.getStats().getActiveConnections());
+        gauges.put("IdleConnections", () -> pool.getStats().getIdleConnections());
+        gauges.put("WaitingThreads", () -> pool.getStats().getWaitingThreads());
+        gauges.put("BorrowCount", () -> pool.getStats().getBorrowCount());
+        gauges.put("TimeoutCount", () -> pool.getStats().getTimeoutCount());
+        gauges.put("WaitMeanMicros", () -> waits.getMeanNanos() / 1000.0);
+        gauges.put("WaitP99Micros", () -> waits.getPercentileNanos(99) / 1000.0);
+        gauges.put("WaitMaxMicros", () -> waits.getMaxNanos() / 1000.0);
+        gauges.put("StatementCacheHitRate", () -> pool.getStats().getStatementCacheHitRate());
+        Metrics.registerGauges("ConnectionPool", "database", gauges);
+    }
+
+    /**
+     * Lazily create the shared pool
+     */
+    private static ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseConnection.class) {
+                current = pool;
+                if (current == null) {
+                    if (URL.startsWith("jdbc:mysql:")) {
+                        try {
+                            // Load MySQL JDBC driver
+                            Class.forName("com.mysql.cj.jdbc.Driver");
+                        } catch (ClassNotFoundException e) {
+                            throw new SQLException("MySQL JDBC Driver not found: " + e.getMessage());
+                        }
+                    }
+                    current = new ConnectionPool(URL, USER, PASSWORD,
+                                                 POOL_MIN_IDLE, POOL_MAX_SIZE,
+                                                 POOL_BORROW_TIMEOUT_MILLIS,
+                                                 POOL_IDLE_TIMEOUT_MILLIS,
+                                                 POOL_VALIDATION_INTERVAL_MILLIS,
+                                                 STATEMENT_CACHE_SIZE);
+                    pool = current;
+                    registerPoolMetrics(current);
+                }
             }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
         }
+        return current;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,134 @@
+package services;
+
+import logging.Log;
+import logging.Logger;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of DashboardSummaryService that loads every count with one statement.
+ * The snapshot is reloaded on a background thread once per TTL, so building a pane
+ * reads it from memory, and listeners are told whenever a count changes.
+ */
+public class DatabaseDashboardSummaryService implements DashboardSummaryService {
+    private static final Logger LOG = Log.getLogger(DatabaseDashboardSummaryService.class);
+
+    // One pass over polls for the poll and vote counts, plus the users count
+    private static final String SUMMARY_SQL =
+        "SELECT (SELECT COUNT(*) FROM users) AS user_count, " +
+        "COUNT(*) AS poll_count, " +
+        "COALESCE(SUM(CASE WHEN status = 'Active' THEN 1 ELSE 0 END), 0) AS active_count, " +
+        "COALESCE(SUM(CASE WHEN status = 'Completed' THEN 1 ELSE 0 END), 0) AS completed_count, " +
+        "COALESCE(SUM(total_votes), 0) AS vote_count " +
+        "FROM polls";
+
+    private final long ttlMillis;
+    private final ScheduledExecutorService refresher;
+    private final List<Consumer<DashboardSummary>> listeners = new CopyOnWriteArrayList<>();
+    private volatile DashboardSummary summary = null;
+
+    /**
+     * Create the service with the TTL set by -Dvoting.summary.ttlMillis (default 10000)
+     */
+    public DatabaseDashboardSummaryService() {
+        this(Long.getLong("voting.summary.ttlMillis", 10 * 1000));
+    }
+
+    /**
+     * @param ttlMillis How long a snapshot is served before it is reloaded
+     */
+    public DatabaseDashboardSummaryService(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "dashboard-summary-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.refresher.scheduleWithFixedDelay(this::refresh, ttlMillis, ttlMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public DashboardSummary getSummary() {
+        DashboardSummary current = summary;
+        if (current == null || System.currentTimeMillis() - current.getLoadedAtMillis() > ttlMillis) {
+            // Nothing loaded yet, or the background refresh has been failing
+            return refresh();
+        }
+        return current;
+    }
+
+    @Override
+    public void requestRefresh() {
+        try {
+            refresher.execute(this::refresh);
+        } catch (RejectedExecutionException e) {
+            // Shut down; nobody is listening
+        }
+    }
+
+    @Override
+    public void addListener(Consumer<DashboardSummary> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(Consumer<DashboardSummary> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void shutdown() {
+        refresher.shutdownNow();
+        listeners.clear();
+    }
+
+    /**
+     * Load the counts and swap them in, telling listeners if any changed
+     *
+     * @return The new snapshot, or the old one (or an empty one) if the counts could not be loaded
+     */
+    private synchronized DashboardSummary refresh() {
+        DashboardSummary previous = summary;
+        DashboardSummary loaded;
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SUMMARY_SQL)) {
+            if (!rs.next()) {
+                return previous != null ? previous : DashboardSummary.empty();
+            }
+            loaded = new DashboardSummary(
+                rs.getInt("user_count"),
+                rs.getInt("poll_count"),
+                rs.getInt("active_count"),
+                rs.getInt("completed_count"),
+                rs.getInt("vote_count"),
+                System.currentTimeMillis()
+            );
+        } catch (SQLException e) {
+            LOG.error("Error loading dashboard summary: " + e.getMessage(), e);
+            return previous != null ? previous : DashboardSummary.empty();
+        }
+
+        summary = loaded;
+        if (!loaded.hasSameCounts(previous)) {
+            LOG.debug(() -> "Dashboard summary changed: " + loaded);
+            for (Consumer<DashboardSummary> listener : listeners) {
+                try {
+                    listener.accept(loaded);
+                } catch (RuntimeException e) {
+                    LOG.error("Error in dashboard summary listener: " + e.getMessage(), e);
+                }
+            }
+        }
+        return loaded;
+    }
+}
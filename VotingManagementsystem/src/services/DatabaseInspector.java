@@ -1,5 +1,7 @@
 package services;
 
+import logging.Log;
+import logging.Logger;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
@@ -11,6 +13,7 @@ import services.DatabaseConnection;
  * Utility class to inspect and fix database structure
  */
 public class DatabaseInspector {
+    private static final Logger LOG = Log.getLogger(DatabaseInspector.class);
 
     /**
      * Print the structure of the votes table to help debug issues
@@ -23,17 +26,17 @@ public class DatabaseInspector {
             conn = DatabaseConnection.getConnection();
             DatabaseMetaData metaData = conn.getMetaData();
             
-            System.out.println("=== DATABASE TABLE INSPECTION ===");
+            LOG.info("=== DATABASE TABLE INSPECTION ===");
 
             // Check if votes table exists
             rs = metaData.getTables(null, null, "votes", null);
             if (!rs.next()) {
-                System.out.println("The 'votes' table does not exist!");
+                LOG.info("The 'votes' table does not exist!");
                 return;
             }
             
             // List all columns in the votes table
-            System.out.println("\nColumns in the votes table:");
+            LOG.info("Columns in the votes table:");
             rs = metaData.getColumns(null, null, "votes", null);
             while (rs.next()) {
                 String columnName = rs.getString("COLUMN_NAME");
@@ -41,20 +44,20 @@ public class DatabaseInspector {
                 String isNullable = rs.getString("IS_NULLABLE");
                 String defaultValue = rs.getString("COLUMN_DEF");
                 
-                System.out.println("  " + columnName + " (" + dataType + ")" + 
-                    " Nullable: " + isNullable + 
-                    (defaultValue != null ? " Default: " + defaultValue : ""));
+                LOG.info("  " + columnName + " (" + dataType + ")" + 
+                         " Nullable: " + isNullable + 
+                         (defaultValue != null ? " Default: " + defaultValue : ""));
             }
             
         } catch (SQLException e) {
-            System.err.println("Error inspecting database: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error inspecting database: " + e.getMessage(), e);
         } finally {
             try {
                 if (rs != null) rs.close();
-                // Don't close the connection as it might be used elsewhere
+                // Return the connection to the pool
+                if (conn != null) conn.close();
             } catch (SQLException e) {
-                System.err.println("Error closing resources: " + e.getMessage());
+                LOG.error("Error closing resources: " + e.getMessage());
             }
         }
     }
@@ -70,28 +73,28 @@ public class DatabaseInspector {
             conn = DatabaseConnection.getConnection();
             stmt = conn.createStatement();
             
-            System.out.println("Attempting to fix the votes table...");
+            LOG.info("Attempting to fix the votes table...");
             
             // Drop foreign key constraints first (if they exist)
             try {
                 stmt.executeUpdate("ALTER TABLE votes DROP FOREIGN KEY votes_ibfk_1");
-                System.out.println("Dropped foreign key constraint votes_ibfk_1");
+                LOG.info("Dropped foreign key constraint votes_ibfk_1");
             } catch (SQLException e) {
                 // Ignore if constraint doesn't exist
-                System.out.println("Note: Could not drop foreign key votes_ibfk_1 (might not exist)");
+                LOG.info("Note: Could not drop foreign key votes_ibfk_1 (might not exist)");
             }
             
             try {
                 stmt.executeUpdate("ALTER TABLE votes DROP FOREIGN KEY votes_ibfk_2");
-                System.out.println("Dropped foreign key constraint votes_ibfk_2");
+                LOG.info("Dropped foreign key constraint votes_ibfk_2");
             } catch (SQLException e) {
                 // Ignore if constraint doesn't exist
-                System.out.println("Note: Could not drop foreign key votes_ibfk_2 (might not exist)");
+                LOG.info("Note: Could not drop foreign key votes_ibfk_2 (might not exist)");
             }
             
             // Drop the table if it exists
             stmt.executeUpdate("DROP TABLE IF EXISTS votes");
-            System.out.println("Dropped existing votes table");
+            LOG.info("Dropped existing votes table");
             
             // Create a new votes table with correct structure
             String createVotesTable = "CREATE TABLE votes (" +
@@ -104,20 +107,20 @@ public class DatabaseInspector {
                 "UNIQUE KEY user_poll_unique (user_id, poll_id))";
             
             stmt.executeUpdate(createVotesTable);
-            System.out.println("Created new votes table with correct structure");
+            LOG.info("Created new votes table with correct structure");
             
             // Show the new table structure
             inspectVotesTable();
             
         } catch (SQLException e) {
-            System.err.println("Error recreating votes table: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error recreating votes table: " + e.getMessage(), e);
         } finally {
             try {
                 if (stmt != null) stmt.close();
-                // Don't close the connection as it might be used elsewhere
+                // Return the connection to the pool
+                if (conn != null) conn.close();
             } catch (SQLException e) {
-                System.err.println("Error closing resources: " + e.getMessage());
+                LOG.error("Error closing resources: " + e.getMessage());
             }
         }
     }
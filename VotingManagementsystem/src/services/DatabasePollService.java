@@ -1,21 +1,42 @@
 package services;
+import logging.Log;
+import logging.Logger;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import models.Poll;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Implementation of PollService that uses a database
  */
 public class DatabasePollService implements PollService {
-    private ObservableList<Poll> cachedPolls;
+    private static final Logger LOG = Log.getLogger(DatabasePollService.class);
+
+    // Changes are looked for this far before a token, so a write that committed late
+    // (its updated_at was set when the statement ran) is still picked up
+    private static final long CHANGE_OVERLAP_MILLIS = 5000;
+
+    // Tombstones are kept this long, so a token older than this may miss deletions
+    private static final long TOMBSTONE_RETENTION_MILLIS =
+        Long.getLong("voting.tombstones.retentionHours", 24) * 60 * 60 * 1000;
+
+    // Largest page getPolls will return, however many the caller asks for
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Shared with every other poll service in the process, so each sees the others' writes
+    private final PollCache pollCache = PollCache.getInstance();
     
     /**
      * Create a new DatabasePollService
      */
     public DatabasePollService() {
-        // Initialize with empty list
-        this.cachedPolls = FXCollections.observableArrayList();
     }
     
     /**
@@ -24,17 +45,31 @@ public class DatabasePollService implements PollService {
      * @param dbConnection Database connection parameter (not used since connection is handled statically)
      */
     public DatabasePollService(DatabaseConnection dbConnection) {
-        // Initialize with empty list
-        this.cachedPolls = FXCollections.observableArrayList();
     }
     
     /**
-     * Get a specific poll by its ID
+     * Get a specific poll by its ID, from the poll cache when it is there
      * 
      * @param pollId The ID of the poll to retrieve
      * @return The Poll object if found, null otherwise
      */
+    @Override
     public Poll getPollById(int pollId) {
+        Poll cached = pollCache.get(pollId);
+        if (cached != null) {
+            return cached;
+        }
+        Poll poll = loadPoll(pollId);
+        if (poll != null) {
+            pollCache.put(poll);
+        }
+        return poll;
+    }
+    
+    /**
+     * Read a poll from the database
+     */
+    private Poll loadPoll(int pollId) {
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(
                  "SELECT id, name, candidate1, candidate2, status, total_votes, created_by " + 
@@ -56,17 +91,61 @@ public class DatabasePollService implements PollService {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error retrieving poll by ID: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error retrieving poll by ID: " + e.getMessage(), e);
         }
         
         return null;  // Poll not found
     }
     
+    @Override
+    public List<Poll> getPollsByIds(List<Integer> pollIds) {
+        if (pollIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < pollIds.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        Map<Integer, Poll> found = new HashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "SELECT id, name, candidate1, candidate2, status, total_votes, created_by " +
+                 "FROM polls WHERE id IN (" + placeholders + ")")) {
+            for (int i = 0; i < pollIds.size(); i++) {
+                stmt.setInt(i + 1, pollIds.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    found.put(rs.getInt("id"), new Poll(
+                        rs.getInt("id"),
+                        rs.getString("name"),
+                        rs.getString("candidate1"),
+                        rs.getString("candidate2"),
+                        rs.getString("status"),
+                        rs.getInt("total_votes"),
+                        rs.getInt("created_by")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("Error retrieving polls by ID: " + e.getMessage(), e);
+        }
+        
+        List<Poll> polls = new ArrayList<>(found.size());
+        for (int pollId : pollIds) {
+            Poll poll = found.get(pollId);
+            if (poll != null) {
+                polls.add(poll);
+            }
+        }
+        return polls;
+    }
+    
     /**
      * Get active polls from the database
      * @return ObservableList of active polls
      */
+    @Override
     public ObservableList<Poll> getActivePolls() {
         ObservableList<Poll> activePolls = FXCollections.observableArrayList();
         try (Connection conn = DatabaseConnection.getConnection();
@@ -86,8 +165,7 @@ public class DatabasePollService implements PollService {
                 activePolls.add(poll);
             }
         } catch (SQLException e) {
-            System.err.println("Error loading active polls: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error loading active polls: " + e.getMessage(), e);
         }
         return activePolls;
     }
@@ -96,6 +174,7 @@ public class DatabasePollService implements PollService {
      * Get completed polls from the database
      * @return ObservableList of completed polls
      */
+    @Override
     public ObservableList<Poll> getCompletedPolls() {
         ObservableList<Poll> completedPolls = FXCollections.observableArrayList();
         try (Connection conn = DatabaseConnection.getConnection();
@@ -116,16 +195,158 @@ public class DatabasePollService implements PollService {
                 completedPolls.add(poll);
             }
         } catch (SQLException e) {
-            System.err.println("Error loading completed polls: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error loading completed polls: " + e.getMessage(), e);
         }
         return completedPolls;
     }
     
+    @Override
+    public PollPage getPolls(PollFilter filter, PollSort sort, PollPage.Key afterKey, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        StringBuilder sql = new StringBuilder(
+            "SELECT p.id, p.name, p.candidate1, p.candidate2, p.status, p.total_votes, p.created_by FROM polls p");
+        List<Object> params = new ArrayList<>();
+        if (filter.getVotedBy() >= 0) {
+            // One row per poll, since votes are unique per user and poll
+            sql.append(" JOIN votes v ON v.poll_id = p.id AND v.user_id = ?");
+            params.add(filter.getVotedBy());
+        }
+        sql.append(" WHERE 1 = 1");
+        if (filter.getStatus() != null) {
+            sql.append(" AND p.status = ?");
+            params.add(filter.getStatus());
+        }
+        // Continue after the last poll of the previous page; each order has an index to seek on
+        switch (sort) {
+            case NEWEST:
+                if (afterKey != null) {
+                    sql.append(" AND p.id < ?");
+                    params.add(afterKey.getId());
+                }
+                sql.append(" ORDER BY p.id DESC");
+                break;
+            case OLDEST:
+                if (afterKey != null) {
+                    sql.append(" AND p.id > ?");
+                    params.add(afterKey.getId());
+                }
+                sql.append(" ORDER BY p.id");
+                break;
+            case NAME:
+                if (afterKey != null) {
+                    sql.append(" AND (p.name > ? OR (p.name = ? AND p.id > ?))");
+                    params.add(afterKey.getName());
+                    params.add(afterKey.getName());
+                    params.add(afterKey.getId());
+                }
+                sql.append(" ORDER BY p.name, p.id");
+                break;
+        }
+        // One extra row tells whether there is another page
+        sql.append(" LIMIT ?");
+        params.add(pageSize + 1);
+        
+        List<Poll> polls = new ArrayList<>(pageSize + 1);
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    polls.add(new Poll(
+                        rs.getInt("id"),
+                        rs.getString("name"),
+                        rs.getString("candidate1"),
+                        rs.getString("candidate2"),
+                        rs.getString("status"),
+                        rs.getInt("total_votes"),
+                        rs.getInt("created_by")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("Error loading page of polls (" + filter + ", " + sort + "): " + e.getMessage(), e);
+            return new PollPage(new ArrayList<>(), null);
+        }
+        
+        if (polls.size() <= pageSize) {
+            return new PollPage(polls, null);
+        }
+        polls.remove(pageSize);
+        return new PollPage(polls, PollPage.Key.after(polls.get(pageSize - 1)));
+    }
+    
+    @Override
+    public PollChanges.Token getChangeToken() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return readChangeToken(conn);
+        } catch (SQLException e) {
+            LOG.error("Error reading poll change token: " + e.getMessage(), e);
+            return null;
+        }
+    }
+    
+    @Override
+    public PollChanges getChangesSince(PollChanges.Token token) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            // Read the next token first, so anything written during this call is seen next time
+            PollChanges.Token next = readChangeToken(conn);
+            Timestamp since = new Timestamp(token.getCheckedAt().getTime() - CHANGE_OVERLAP_MILLIS);
+            
+            // A vote moves updated_at too, since the tally update sets total_votes
+            List<Poll> changed = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT id, name, candidate1, candidate2, status, total_votes, created_by FROM polls " +
+                    "WHERE updated_at >= ?")) {
+                stmt.setTimestamp(1, since);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        changed.add(new Poll(
+                            rs.getInt("id"),
+                            rs.getString("name"),
+                            rs.getString("candidate1"),
+                            rs.getString("candidate2"),
+                            rs.getString("status"),
+                            rs.getInt("total_votes"),
+                            rs.getInt("created_by")
+                        ));
+                    }
+                }
+            }
+            
+            Set<Integer> deleted = new HashSet<>();
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT poll_id FROM poll_tombstones WHERE deleted_at >= ?")) {
+                stmt.setTimestamp(1, since);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        deleted.add(rs.getInt("poll_id"));
+                    }
+                }
+            }
+            return new PollChanges(changed, deleted, next);
+        } catch (SQLException e) {
+            LOG.error("Error loading poll changes: " + e.getMessage(), e);
+            return PollChanges.none(token);
+        }
+    }
+    
+    /**
+     * Read the database clock, which marks the current state of the polls table.
+     * The database clock is used so client clocks don't matter
+     */
+    private PollChanges.Token readChangeToken(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT CURRENT_TIMESTAMP(3)")) {
+            rs.next();
+            return new PollChanges.Token(rs.getTimestamp(1));
+        }
+    }
+    
     @Override
     public ObservableList<Poll> getAllPolls() {
-        // Clear the cache and reload from database
-        cachedPolls.clear();
+        ObservableList<Poll> polls = FXCollections.observableArrayList();
         try (Connection conn = DatabaseConnection.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(
@@ -140,13 +361,12 @@ public class DatabasePollService implements PollService {
                     rs.getInt("total_votes"),
                     rs.getInt("created_by")
                 );
-                cachedPolls.add(poll);
+                polls.add(poll);
             }
         } catch (SQLException e) {
-            System.err.println("Error loading polls: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error loading polls: " + e.getMessage(), e);
         }
-        return cachedPolls;
+        return polls;
     }
     
     @Override
@@ -171,11 +391,17 @@ public class DatabasePollService implements PollService {
                     }
                 }
             }
-            // Refresh the cached list
-            getAllPolls();
+            if (generatedId > 0) {
+                pollCache.created(new Poll(generatedId, poll.getName(), poll.getCandidate1(), poll.getCandidate2(),
+                                           poll.getStatus() != null ? poll.getStatus() : "Draft",
+                                           poll.getTotalVotes(), poll.getCreatedBy()));
+            }
+            PollSearchIndex searchIndex = PollSearchIndex.getInstance();
+            if (searchIndex != null && generatedId > 0) {
+                searchIndex.put(generatedId, poll.getName(), poll.getCandidate1(), poll.getCandidate2());
+            }
         } catch (SQLException e) {
-            System.err.println("Error creating poll: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error creating poll: " + e.getMessage(), e);
         }
         return generatedId;
     }
@@ -191,20 +417,28 @@ public class DatabasePollService implements PollService {
             stmt.setString(4, poll.getStatus());
             stmt.setInt(5, poll.getId());
             int affectedRows = stmt.executeUpdate();
-            // Refresh the cached list
-            getAllPolls();
-            return affectedRows > 0;
+            if (affectedRows > 0) {
+                updateCachedPoll(poll.getId(), cached -> {
+                    cached.setName(poll.getName());
+                    cached.setCandidate1(poll.getCandidate1());
+                    cached.setCandidate2(poll.getCandidate2());
+                    cached.setStatus(poll.getStatus());
+                });
+            }
+            PollSearchIndex searchIndex = PollSearchIndex.getInstance();
+            if (searchIndex != null && affectedRows > 0) {
+                searchIndex.put(poll);
+            }
+            return affectedRows > 0 || pollExists(conn, poll.getId());
         } catch (SQLException e) {
-            System.err.println("Error updating poll: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error updating poll: " + e.getMessage(), e);
             return false;
         }
     }
     
     @Override
     public boolean deletePoll(int pollId) {
-        try {
-            Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getConnection()) {
             // Try to delete any votes for this poll first (if the table exists)
             try {
                 PreparedStatement deleteVotes = conn.prepareStatement("DELETE FROM votes WHERE poll_id = ?");
@@ -213,19 +447,44 @@ public class DatabasePollService implements PollService {
                 deleteVotes.close();
             } catch (SQLException e) {
                 // Votes table might not exist yet, continue with poll deletion
-                System.err.println("Note: Could not delete votes (table may not exist): " + e.getMessage());
+                LOG.error("Note: Could not delete votes (table may not exist): " + e.getMessage());
             }
             // Then delete the poll itself
             PreparedStatement deletePoll = conn.prepareStatement("DELETE FROM polls WHERE id = ?");
             deletePoll.setInt(1, pollId);
             int affectedRows = deletePoll.executeUpdate();
             deletePoll.close();
-            // Refresh the cached list
-            getAllPolls();
+            if (affectedRows > 0) {
+                // Leave a tombstone so open dashboards see the deletion in their next refresh
+                try (PreparedStatement tombstone = conn.prepareStatement(
+                        "INSERT INTO poll_tombstones (poll_id) VALUES (?)")) {
+                    tombstone.setInt(1, pollId);
+                    tombstone.executeUpdate();
+                }
+                // Every reader has long since seen the old ones
+                try (PreparedStatement prune = conn.prepareStatement(
+                        "DELETE FROM poll_tombstones WHERE deleted_at < ?")) {
+                    prune.setTimestamp(1, new Timestamp(System.currentTimeMillis() - TOMBSTONE_RETENTION_MILLIS));
+                    prune.executeUpdate();
+                }
+                pollCache.deleted(pollId);
+            }
+            TallyEngine engine = TallyEngine.getInstance();
+            if (engine != null) {
+                engine.removePoll(pollId);
+            }
+            PollResultsCache resultsCache = PollResultsCache.getInstance();
+            if (resultsCache != null) {
+                resultsCache.invalidate(pollId);
+            }
+            PollVoterIndex.getInstance().invalidate(pollId);
+            PollSearchIndex searchIndex = PollSearchIndex.getInstance();
+            if (searchIndex != null) {
+                searchIndex.remove(pollId);
+            }
             return affectedRows > 0;
         } catch (SQLException e) {
-            System.err.println("Error deleting poll: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error deleting poll: " + e.getMessage(), e);
             return false;
         }
     }
@@ -237,12 +496,12 @@ public class DatabasePollService implements PollService {
                 "UPDATE polls SET status = 'Active' WHERE id = ?")) {
             stmt.setInt(1, pollId);
             int affectedRows = stmt.executeUpdate();
-            // Refresh the cached list
-            getAllPolls();
-            return affectedRows > 0;
+            if (affectedRows > 0) {
+                updateCachedPoll(pollId, cached -> cached.setStatus("Active"));
+            }
+            return affectedRows > 0 || pollExists(conn, pollId);
         } catch (SQLException e) {
-            System.err.println("Error activating poll: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error activating poll: " + e.getMessage(), e);
             return false;
         }
     }
@@ -254,16 +513,47 @@ public class DatabasePollService implements PollService {
                 "UPDATE polls SET status = 'Completed' WHERE id = ?")) {
             stmt.setInt(1, pollId);
             int affectedRows = stmt.executeUpdate();
-            // Refresh the cached list
-            getAllPolls();
-            return affectedRows > 0;
+            if (affectedRows > 0) {
+                updateCachedPoll(pollId, cached -> cached.setStatus("Completed"));
+            }
+            return affectedRows > 0 || pollExists(conn, pollId);
         } catch (SQLException e) {
-            System.err.println("Error completing poll: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error completing poll: " + e.getMessage(), e);
             return false;
         }
     }
     
+    /**
+     * Check that a poll exists, for an update that changed no rows because the poll
+     * already had the new values
+     */
+    private boolean pollExists(Connection conn, int pollId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT 1 FROM polls WHERE id = ?")) {
+            stmt.setInt(1, pollId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+    
+    /**
+     * Apply a successful update to the cached poll and tell the cache's listeners.
+     * A poll that is not cached is read back instead, since the update did not set
+     * every column
+     */
+    private void updateCachedPoll(int pollId, Consumer<Poll> change) {
+        Poll poll = pollCache.get(pollId);
+        if (poll != null) {
+            change.accept(poll);
+        } else {
+            poll = loadPoll(pollId);
+            if (poll == null) {
+                return;
+            }
+        }
+        pollCache.updated(poll);
+    }
+    
     @Override
     public int getPollCount() {
         try (Connection conn = DatabaseConnection.getConnection();
@@ -273,8 +563,7 @@ public class DatabasePollService implements PollService {
                 return rs.getInt(1);
             }
         } catch (SQLException e) {
-            System.err.println("Error counting polls: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error counting polls: " + e.getMessage(), e);
         }
         return 0;
     }
@@ -288,8 +577,7 @@ public class DatabasePollService implements PollService {
                 return rs.getInt(1);
             }
         } catch (SQLException e) {
-            System.err.println("Error counting active polls: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error counting active polls: " + e.getMessage(), e);
         }
         return 0;
     }
@@ -303,14 +591,17 @@ public class DatabasePollService implements PollService {
                 return rs.getInt(1);
             }
         } catch (SQLException e) {
-            System.err.println("Error counting completed polls: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error counting completed polls: " + e.getMessage(), e);
         }
         return 0;
     }
     
     @Override
     public int getTotalVoteCount() {
+        TallyEngine engine = TallyEngine.getInstance();
+        if (engine != null) {
+            return engine.getTotalVotes();
+        }
         try (Connection conn = DatabaseConnection.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery("SELECT SUM(total_votes) FROM polls")) {
@@ -318,8 +609,7 @@ public class DatabasePollService implements PollService {
                 return rs.getInt(1);
             }
         } catch (SQLException e) {
-            System.err.println("Error counting total votes: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error counting total votes: " + e.getMessage(), e);
         }
         return 0;
     }
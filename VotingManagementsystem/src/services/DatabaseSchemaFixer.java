@@ -1,5 +1,7 @@
 package services;
 
+import logging.Log;
+import logging.Logger;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -8,6 +10,8 @@ import java.sql.Statement;
  * Utility class to fix database schema issues
  */
 public class DatabaseSchemaFixer {
+    private static final Logger LOG = Log.getLogger(DatabaseSchemaFixer.class);
+
     
     /**
      * Fix the database schema by ensuring all required columns exist
@@ -38,26 +42,26 @@ public class DatabaseSchemaFixer {
             try {
                 // Try to add candidate_id column if it doesn't exist
                 stmt.executeUpdate("ALTER TABLE votes ADD COLUMN candidate_id INT NOT NULL");
-                System.out.println("Added missing candidate_id column to votes table");
+                LOG.info("Added missing candidate_id column to votes table");
             } catch (SQLException e) {
                 // Column likely already exists
                 if (e.getMessage().contains("Duplicate column name")) {
-                    System.out.println("candidate_id column already exists in votes table");
+                    LOG.info("candidate_id column already exists in votes table");
                 } else {
                     throw e; // Re-throw if it's a different error
                 }
             }
             
         } catch (SQLException e) {
-            System.err.println("Error fixing database schema: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error fixing database schema: " + e.getMessage(), e);
         } finally {
             // Close resources
             try {
                 if (stmt != null) stmt.close();
-                // Don't close the connection as it may be used elsewhere
+                // Return the connection to the pool
+                if (conn != null) conn.close();
             } catch (SQLException e) {
-                System.err.println("Error closing resources: " + e.getMessage());
+                LOG.error("Error closing resources: " + e.getMessage());
             }
         }
     }
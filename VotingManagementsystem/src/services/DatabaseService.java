@@ -1,5 +1,7 @@
 package services;
 
+import logging.Log;
+import logging.Logger;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
@@ -13,6 +15,10 @@ import java.util.Map;
  * Service class that handles database operations
  */
 public class DatabaseService {
+    private static final Logger LOG = Log.getLogger(DatabaseService.class);
+
+    private static final String TALLY_BACKFILL_MIGRATION = "backfill_poll_candidate_tallies";
+    
     /**
      * Registers a new user in the database
      * 
@@ -183,7 +189,7 @@ public class DatabaseService {
         try {
             conn = DatabaseConnection.getConnection();
             stmt = conn.createStatement();
-            System.out.println("========== Setting up database ==========");
+            LOG.info("========== Setting up database ==========");
             
             // Create users table if it doesn't exist
             String createusersTable = "CREATE TABLE IF NOT EXISTS users (" +
@@ -194,7 +200,13 @@ public class DatabaseService {
                 "email VARCHAR(100) NOT NULL UNIQUE, " +
                 "password VARCHAR(100) NOT NULL)";
             stmt.executeUpdate(createusersTable);
-            System.out.println("users table created or already exists");
+            LOG.info("users table created or already exists");
+            
+            // Admin user search matches name prefixes; email prefixes use the unique key
+            if (!hasIndex(conn, "users", "idx_users_full_name")) {
+                stmt.executeUpdate("CREATE INDEX idx_users_full_name ON users (full_name)");
+                LOG.info("Added index idx_users_full_name to users table");
+            }
             
             // Create admin table if it doesn't exist
             String createAdminTable = "CREATE TABLE IF NOT EXISTS admin (" +
@@ -205,7 +217,7 @@ public class DatabaseService {
                 "email VARCHAR(100) NOT NULL UNIQUE, " +
                 "password VARCHAR(100) NOT NULL)";
             stmt.executeUpdate(createAdminTable);
-            System.out.println("Admin table created or already exists");
+            LOG.info("Admin table created or already exists");
             
             // Check if admin account exists
             String checkAdmin = "SELECT COUNT(*) FROM admin WHERE email = 'admin@gmail.com'";
@@ -220,7 +232,7 @@ public class DatabaseService {
                 String insertAdmin = "INSERT INTO admin (full_name, gender, phone, email, password) " +
                     "VALUES ('admin', 'male', '9847698000', 'admin@gmail.com', 'admin@1')";
                 stmt.executeUpdate(insertAdmin);
-                System.out.println("Admin user created successfully");
+                LOG.info("Admin user created successfully");
             }
             
             // Create polls table if it doesn't exist
@@ -234,7 +246,38 @@ public class DatabaseService {
                 "created_by INT, " +
                 "FOREIGN KEY (created_by) REFERENCES admin(id))";
             stmt.executeUpdate(createPollsTable);
-            System.out.println("Polls table created or already exists");
+            LOG.info("Polls table created or already exists");
+            
+            // Track when each poll last changed, so dashboards can refresh only what changed.
+            // Votes update total_votes, which also moves updated_at
+            if (!hasColumn(conn, "polls", "updated_at")) {
+                stmt.executeUpdate("ALTER TABLE polls ADD COLUMN updated_at TIMESTAMP(3) NOT NULL " +
+                    "DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)");
+                stmt.executeUpdate("CREATE INDEX idx_polls_updated_at ON polls (updated_at)");
+                LOG.info("Added updated_at column to polls table");
+            }
+            
+            // Indexes for the paged poll lists: one per order, with and without a status filter.
+            // Voted-by pages use the votes (user_id, poll_id) unique key
+            String[][] pollIndexes = {
+                {"idx_polls_status_id", "status, id"},
+                {"idx_polls_name_id", "name, id"},
+                {"idx_polls_status_name_id", "status, name, id"}
+            };
+            for (String[] index : pollIndexes) {
+                if (!hasIndex(conn, "polls", index[0])) {
+                    stmt.executeUpdate("CREATE INDEX " + index[0] + " ON polls (" + index[1] + ")");
+                    LOG.info("Added index " + index[0] + " to polls table");
+                }
+            }
+            
+            // Deleted polls leave a tombstone for the same refresh
+            String createTombstonesTable = "CREATE TABLE IF NOT EXISTS poll_tombstones (" +
+                "poll_id INT PRIMARY KEY, " +
+                "deleted_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), " +
+                "INDEX idx_poll_tombstones_deleted_at (deleted_at))";
+            stmt.executeUpdate(createTombstonesTable);
+            LOG.info("Poll tombstones table created or already exists");
             
             // Check if votes table exists and has the right structure
             boolean recreateVotesTable = false;
@@ -243,7 +286,7 @@ public class DatabaseService {
                 ResultSet votesTable = conn.getMetaData().getTables(null, null, "votes", null);
                 if (!votesTable.next()) {
                     // Table doesn't exist
-                    System.out.println("Votes table doesn't exist - will create it");
+                    LOG.info("Votes table doesn't exist - will create it");
                     recreateVotesTable = true;
                 } else {
                     // Table exists, check if it has the right structure
@@ -257,19 +300,19 @@ public class DatabaseService {
                             }
                         }
                         if (!hasCandidate) {
-                            System.out.println("Votes table is missing candidate_id column - will recreate");
+                            LOG.info("Votes table is missing candidate_id column - will recreate");
                             recreateVotesTable = true;
                         } else {
-                            System.out.println("Votes table exists with proper structure - keeping existing votes");
+                            LOG.info("Votes table exists with proper structure - keeping existing votes");
                         }
                     } catch (SQLException e) {
                         // Can't check structure, recreate to be safe
-                        System.out.println("Could not verify votes table structure - will recreate: " + e.getMessage());
+                        LOG.info("Could not verify votes table structure - will recreate: " + e.getMessage());
                         recreateVotesTable = true;
                     }
                 }
             } catch (SQLException e) {
-                System.out.println("Error checking votes table - will recreate: " + e.getMessage());
+                LOG.info("Error checking votes table - will recreate: " + e.getMessage());
                 recreateVotesTable = true;
             }
             
@@ -293,10 +336,10 @@ public class DatabaseService {
                         
                         // Only drop if we need to recreate
                         stmt.executeUpdate("DROP TABLE IF EXISTS votes");
-                        System.out.println("Dropped existing votes table to recreate with proper schema");
+                        LOG.info("Dropped existing votes table to recreate with proper schema");
                     }
                 } catch (SQLException e) {
-                    System.out.println("Note: Could not drop votes table completely: " + e.getMessage());
+                    LOG.info("Note: Could not drop votes table completely: " + e.getMessage());
                 }
                 
                 // Create votes table with proper constraints
@@ -305,28 +348,65 @@ public class DatabaseService {
                     "poll_id INT NOT NULL, " +
                     "user_id INT NOT NULL, " +
                     "candidate_id INT NOT NULL, " +
+                    "cast_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), " +
                     "FOREIGN KEY (poll_id) REFERENCES polls(id) ON DELETE CASCADE, " +
                     "FOREIGN KEY (user_id) REFERENCES users(id), " +
                     "UNIQUE KEY user_poll_unique (user_id, poll_id))";
                 stmt.executeUpdate(createVotesTable);
-                System.out.println("Created votes table with UNIQUE constraint on user_id+poll_id");
+                LOG.info("Created votes table with UNIQUE constraint on user_id+poll_id");
             } else {
                 // Make sure the unique constraint exists
                 try {
                     stmt.execute("ALTER TABLE votes ADD CONSTRAINT user_poll_unique UNIQUE (user_id, poll_id)");
-                    System.out.println("Added unique constraint to existing votes table");
+                    LOG.info("Added unique constraint to existing votes table");
                 } catch (SQLException e) {
                     // If constraint already exists, that's fine
                     if (e.getMessage().contains("Duplicate") || e.getMessage().contains("already exists")) {
-                        System.out.println("Unique constraint already exists on votes table");
+                        LOG.info("Unique constraint already exists on votes table");
                     } else {
-                        System.err.println("Error adding constraint: " + e.getMessage());
+                        LOG.error("Error adding constraint: " + e.getMessage());
                     }
                 }
             }
             
+            // When each vote was cast, for the recent activity feed. Votes cast before
+            // this column existed get the time of the migration
+            if (!hasColumn(conn, "votes", "cast_at")) {
+                stmt.executeUpdate("ALTER TABLE votes ADD COLUMN cast_at TIMESTAMP(3) NOT NULL " +
+                    "DEFAULT CURRENT_TIMESTAMP(3)");
+                LOG.info("Added cast_at column to votes table");
+            }
+            if (!hasIndex(conn, "votes", "idx_votes_user_cast_at")) {
+                stmt.executeUpdate("CREATE INDEX idx_votes_user_cast_at ON votes (user_id, cast_at)");
+                LOG.info("Added index idx_votes_user_cast_at to votes table");
+            }
+            
+            // Create per-candidate tally table, maintained by the vote transaction
+            String createTalliesTable = "CREATE TABLE IF NOT EXISTS poll_candidate_tallies (" +
+                "poll_id INT NOT NULL, " +
+                "candidate_id INT NOT NULL, " +
+                "votes INT NOT NULL DEFAULT 0, " +
+                "PRIMARY KEY (poll_id, candidate_id), " +
+                "FOREIGN KEY (poll_id) REFERENCES polls(id) ON DELETE CASCADE)";
+            stmt.executeUpdate(createTalliesTable);
+            LOG.info("Poll candidate tallies table created or already exists");
+            
+            // Backfill the tallies from existing votes once, and again whenever votes was recreated
+            String createMigrationsTable = "CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                "name VARCHAR(100) PRIMARY KEY, " +
+                "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+            stmt.executeUpdate(createMigrationsTable);
+            if (recreateVotesTable || !isMigrationApplied(conn, TALLY_BACKFILL_MIGRATION)) {
+                if (new DatabaseTallyService().recountAll()) {
+                    markMigrationApplied(conn, TALLY_BACKFILL_MIGRATION);
+                    LOG.info("Backfilled poll candidate tallies from votes table");
+                } else {
+                    LOG.warn("Could not backfill poll candidate tallies - will retry on next startup");
+                }
+            }
+            
             // Simple check of columns
-            System.out.println("\n===== Verifying Votes Table Structure =====");
+            LOG.info("===== Verifying Votes Table Structure =====");
             try {
                 ResultSet columns = stmt.executeQuery("DESCRIBE votes");
                 while (columns.next()) {
@@ -334,37 +414,111 @@ public class DatabaseService {
                     String dataType = columns.getString("Type");
                     String isNullable = columns.getString("Null");
                     String key = columns.getString("Key");
-                    System.out.println("  " + columnName + " (" + dataType + ")" + 
-                                      " Nullable: " + isNullable + " Key: " + key);
+                    LOG.info("  " + columnName + " (" + dataType + ")" + 
+                             " Nullable: " + isNullable + " Key: " + key);
                 }
                 columns.close();
             } catch (SQLException e) {
-                System.out.println("Error describing votes table: " + e.getMessage());
+                LOG.info("Error describing votes table: " + e.getMessage());
             }
             
             // Try to verify indexes differently
-            System.out.println("\n===== Verifying Votes Table Indexes =====");
+            LOG.info("===== Verifying Votes Table Indexes =====");
             try {
                 ResultSet indexes = stmt.executeQuery("SHOW INDEXES FROM votes");
                 while (indexes.next()) {
                     String keyName = indexes.getString("Key_name");
                     String columnName = indexes.getString("Column_name");
                     boolean nonUnique = indexes.getInt("Non_unique") == 1;
-                    System.out.println("  " + keyName + " on column " + columnName + 
-                                      " (Unique: " + !nonUnique + ")");
+                    LOG.info("  " + keyName + " on column " + columnName + 
+                             " (Unique: " + !nonUnique + ")");
                 }
                 indexes.close();
             } catch (SQLException e) {
-                System.out.println("Error showing indexes: " + e.getMessage());
+                LOG.info("Error showing indexes: " + e.getMessage());
             }
             
-            System.out.println("========== Database setup complete ==========\n");
+            LOG.info("========== Database setup complete ==========");
         } finally {
             // Close resources
             if (stmt != null) {
                 stmt.close();
             }
-            // Don't close the connection as it may be used elsewhere
+            // Return the connection to the pool
+            if (conn != null) {
+                conn.close();
+            }
+        }
+    }
+    
+    /**
+     * Checks whether a table has a column
+     * 
+     * @param conn Connection to use
+     * @param table Table name
+     * @param column Column name
+     * @return true if the column exists
+     * @throws SQLException If a database error occurs
+     */
+    private boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, table, column)) {
+            return rs.next();
+        }
+    }
+    
+    /**
+     * Checks whether a table has an index
+     * 
+     * @param conn Connection to use
+     * @param table Table name
+     * @param index Index name
+     * @return true if the index exists
+     * @throws SQLException If a database error occurs
+     */
+    private boolean hasIndex(Connection conn, String table, String index) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getIndexInfo(conn.getCatalog(), null, table, false, false)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * Checks whether a one-time migration has already been applied
+     * 
+     * @param conn Connection to use
+     * @param name Migration name
+     * @return true if the migration is recorded in schema_migrations
+     * @throws SQLException If a database error occurs
+     */
+    private boolean isMigrationApplied(Connection conn, String name) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT 1 FROM schema_migrations WHERE name = ?")) {
+            pstmt.setString(1, name);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+    
+    /**
+     * Records a one-time migration as applied
+     * 
+     * @param conn Connection to use
+     * @param name Migration name
+     * @throws SQLException If a database error occurs
+     */
+    private void markMigrationApplied(Connection conn, String name) throws SQLException {
+        if (isMigrationApplied(conn, name)) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO schema_migrations (name) VALUES (?)")) {
+            pstmt.setString(1, name);
+            pstmt.executeUpdate();
         }
     }
 }
\ No newline at end of file
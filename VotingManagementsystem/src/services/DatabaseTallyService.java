@@ -0,0 +1,161 @@
+package services;
+
+import logging.Log;
+import logging.Logger;
+import models.Vote;
+import java.sql.*;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of TallyService that keeps counters in the database.
+ * polls.total_votes and poll_candidate_tallies are incremented in the same
+ * transaction as the vote insert, so a new vote never rescans the votes table.
+ */
+public class DatabaseTallyService implements TallyService {
+    private static final Logger LOG = Log.getLogger(DatabaseTallyService.class);
+
+    /**
+     * Statements that rewrite the tallies from the votes table, run inside the recount transaction
+     */
+    private interface RecountStatements {
+        void run(Connection conn) throws SQLException;
+    }
+
+    @Override
+    public void recordVote(Connection conn, int pollId, int candidateId) throws SQLException {
+        try (PreparedStatement totalStmt = conn.prepareStatement(
+                 "UPDATE polls SET total_votes = total_votes + 1 WHERE id = ?");
+             PreparedStatement candidateStmt = conn.prepareStatement(
+                 "INSERT INTO poll_candidate_tallies (poll_id, candidate_id, votes) VALUES (?, ?, 1) " +
+                 "ON DUPLICATE KEY UPDATE votes = votes + 1")) {
+
+            totalStmt.setInt(1, pollId);
+            totalStmt.executeUpdate();
+
+            candidateStmt.setInt(1, pollId);
+            candidateStmt.setInt(2, candidateId);
+            candidateStmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public void recordVotes(Connection conn, List<Vote> votes) throws SQLException {
+        if (votes.isEmpty()) {
+            return;
+        }
+
+        // Collapse the batch into one increment per poll and per candidate
+        Map<Integer, Integer> perPoll = new LinkedHashMap<>();
+        Map<Long, Integer> perCandidate = new LinkedHashMap<>();
+        for (Vote vote : votes) {
+            perPoll.merge(vote.getPollId(), 1, Integer::sum);
+            long key = ((long) vote.getPollId() << 32) | (vote.getCandidateId() & 0xFFFFFFFFL);
+            perCandidate.merge(key, 1, Integer::sum);
+        }
+
+        try (PreparedStatement totalStmt = conn.prepareStatement(
+                 "UPDATE polls SET total_votes = total_votes + ? WHERE id = ?");
+             PreparedStatement candidateStmt = conn.prepareStatement(
+                 "INSERT INTO poll_candidate_tallies (poll_id, candidate_id, votes) VALUES (?, ?, ?) " +
+                 "ON DUPLICATE KEY UPDATE votes = votes + ?")) {
+
+            for (Map.Entry<Integer, Integer> entry : perPoll.entrySet()) {
+                totalStmt.setInt(1, entry.getValue());
+                totalStmt.setInt(2, entry.getKey());
+                totalStmt.addBatch();
+            }
+            totalStmt.executeBatch();
+
+            for (Map.Entry<Long, Integer> entry : perCandidate.entrySet()) {
+                candidateStmt.setInt(1, (int) (entry.getKey() >>> 32));
+                candidateStmt.setInt(2, (int) (long) entry.getKey());
+                candidateStmt.setInt(3, entry.getValue());
+                candidateStmt.setInt(4, entry.getValue());
+                candidateStmt.addBatch();
+            }
+            candidateStmt.executeBatch();
+        }
+    }
+
+    @Override
+    public boolean recount(int pollId) {
+        return runRecount(conn -> {
+            try (PreparedStatement totalStmt = conn.prepareStatement(
+                     "UPDATE polls SET total_votes = (SELECT COUNT(*) FROM votes WHERE poll_id = ?) WHERE id = ?");
+                 PreparedStatement clearStmt = conn.prepareStatement(
+                     "DELETE FROM poll_candidate_tallies WHERE poll_id = ?");
+                 PreparedStatement candidateStmt = conn.prepareStatement(
+                     "INSERT INTO poll_candidate_tallies (poll_id, candidate_id, votes) " +
+                     "SELECT poll_id, candidate_id, COUNT(*) FROM votes WHERE poll_id = ? GROUP BY poll_id, candidate_id")) {
+
+                totalStmt.setInt(1, pollId);
+                totalStmt.setInt(2, pollId);
+                totalStmt.executeUpdate();
+
+                clearStmt.setInt(1, pollId);
+                clearStmt.executeUpdate();
+
+                candidateStmt.setInt(1, pollId);
+                candidateStmt.executeUpdate();
+            }
+        }, pollId, "poll " + pollId);
+    }
+
+    @Override
+    public boolean recountAll() {
+        return runRecount(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate(
+                    "UPDATE polls SET total_votes = (SELECT COUNT(*) FROM votes WHERE votes.poll_id = polls.id)");
+                stmt.executeUpdate("DELETE FROM poll_candidate_tallies");
+                stmt.executeUpdate(
+                    "INSERT INTO poll_candidate_tallies (poll_id, candidate_id, votes) " +
+                    "SELECT poll_id, candidate_id, COUNT(*) FROM votes GROUP BY poll_id, candidate_id");
+            }
+        }, -1, "all polls");
+    }
+
+    /**
+     * Run the recount statements in one transaction, then bring the in-memory tallies
+     * and caches in line for the poll, or for every poll when pollId is -1
+     */
+    private boolean runRecount(RecountStatements statements, int pollId, String description) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                statements.run(conn);
+                conn.commit();
+                LOG.info("Recounted vote tallies for " + description);
+                
+                // Keep the in-memory tallies, cached polls and cached results in line with the recount
+                TallyEngine engine = TallyEngine.getInstance();
+                if (engine != null) {
+                    engine.reconcile();
+                }
+                PollResultsCache resultsCache = PollResultsCache.getInstance();
+                if (pollId > 0) {
+                    PollCache.getInstance().invalidate(pollId);
+                    if (resultsCache != null) {
+                        resultsCache.invalidate(pollId);
+                    }
+                } else {
+                    PollCache.getInstance().invalidateAll();
+                    if (resultsCache != null) {
+                        resultsCache.invalidateAll();
+                    }
+                }
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            LOG.error("Error recounting vote tallies for " + description + ": " + e.getMessage(), e);
+            return false;
+        }
+    }
+}
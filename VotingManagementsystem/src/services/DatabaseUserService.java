@@ -1,14 +1,23 @@
 package services;
 
+import logging.Log;
+import logging.Logger;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import models.User;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Implementation of UserService that uses a database
  */
 public class DatabaseUserService implements UserService {
+    private static final Logger LOG = Log.getLogger(DatabaseUserService.class);
+
+    // Largest page searchUsers will return, however many the caller asks for
+    private static final int MAX_PAGE_SIZE = 500;
+
     private ObservableList<User> cachedUsers;
     
     /**
@@ -50,13 +59,113 @@ public class DatabaseUserService implements UserService {
             }
             
         } catch (SQLException e) {
-            System.err.println("Error loading users: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error loading users: " + e.getMessage(), e);
         }
         
         return cachedUsers;
     }
     
+    @Override
+    public UserPage searchUsers(String query, UserPage.Key afterKey, int limit) {
+        List<User> users = new ArrayList<>();
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String prefix = query == null ? "" : query.trim();
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (prefix.isEmpty()) {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "SELECT id, full_name, gender, phone, email FROM users WHERE id > ? ORDER BY id LIMIT ?")) {
+                    stmt.setInt(1, afterKey != null ? afterKey.getId() : 0);
+                    stmt.setInt(2, pageSize);
+                    readUsers(stmt, users);
+                }
+                if (users.size() < pageSize) {
+                    return new UserPage(users, null);
+                }
+                User last = users.get(users.size() - 1);
+                return new UserPage(users, new UserPage.Key(UserPage.Key.Phase.ID, last.getId(), null));
+            }
+            
+            String pattern = escapeLike(prefix) + "%";
+            if (afterKey == null || afterKey.getPhase() == UserPage.Key.Phase.NAME) {
+                // Range scan of idx_users_full_name in its own (full_name, id) order, resumed
+                // after the last row, so each page reads only its own rows
+                String sql = afterKey == null
+                    ? "SELECT id, full_name, gender, phone, email FROM users " +
+                      "WHERE full_name LIKE ? ORDER BY full_name, id LIMIT ?"
+                    : "SELECT id, full_name, gender, phone, email FROM users " +
+                      "WHERE full_name LIKE ? AND (full_name > ? OR (full_name = ? AND id > ?)) " +
+                      "ORDER BY full_name, id LIMIT ?";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, pattern);
+                    if (afterKey == null) {
+                        stmt.setInt(2, pageSize);
+                    } else {
+                        stmt.setString(2, afterKey.getValue());
+                        stmt.setString(3, afterKey.getValue());
+                        stmt.setInt(4, afterKey.getId());
+                        stmt.setInt(5, pageSize);
+                    }
+                    readUsers(stmt, users);
+                }
+                if (users.size() == pageSize) {
+                    User last = users.get(users.size() - 1);
+                    return new UserPage(users, new UserPage.Key(UserPage.Key.Phase.NAME, last.getId(), last.getFullName()));
+                }
+                // Name matches are used up; fill the page from the email matches
+                afterKey = null;
+            }
+            
+            // Range scan of the unique email key. Users whose name matched were listed above;
+            // skipping them reads each such row once over the whole search, not once per page
+            int remaining = pageSize - users.size();
+            String sql = afterKey == null
+                ? "SELECT id, full_name, gender, phone, email FROM users " +
+                  "WHERE email LIKE ? AND full_name NOT LIKE ? ORDER BY email LIMIT ?"
+                : "SELECT id, full_name, gender, phone, email FROM users " +
+                  "WHERE email LIKE ? AND email > ? AND full_name NOT LIKE ? ORDER BY email LIMIT ?";
+            List<User> emailMatches = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, pattern);
+                if (afterKey == null) {
+                    stmt.setString(2, pattern);
+                    stmt.setInt(3, remaining);
+                } else {
+                    stmt.setString(2, afterKey.getValue());
+                    stmt.setString(3, pattern);
+                    stmt.setInt(4, remaining);
+                }
+                readUsers(stmt, emailMatches);
+            }
+            users.addAll(emailMatches);
+            if (emailMatches.size() < remaining) {
+                return new UserPage(users, null);
+            }
+            User last = emailMatches.get(emailMatches.size() - 1);
+            return new UserPage(users, new UserPage.Key(UserPage.Key.Phase.EMAIL, last.getId(), last.getEmail()));
+        } catch (SQLException e) {
+            LOG.error("Error searching users: " + e.getMessage(), e);
+            return new UserPage(users, null);
+        }
+    }
+    
+    /**
+     * Run a user query and add the users it returns
+     */
+    private void readUsers(PreparedStatement stmt, List<User> users) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                users.add(new User(
+                    rs.getInt("id"),
+                    rs.getString("full_name"),
+                    rs.getString("gender"),
+                    rs.getString("phone"),
+                    rs.getString("email")
+                ));
+            }
+        }
+    }
+    
     @Override
     public int addUser(User user) {
         int generatedId = -1;
@@ -82,12 +191,8 @@ public class DatabaseUserService implements UserService {
                 }
             }
             
-            // Refresh the cached list
-            getAllUsers();
-            
         } catch (SQLException e) {
-            System.err.println("Error adding user: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error adding user: " + e.getMessage(), e);
         }
         
         return generatedId;
@@ -107,14 +212,10 @@ public class DatabaseUserService implements UserService {
             
             int affectedRows = stmt.executeUpdate();
             
-            // Refresh the cached list
-            getAllUsers();
-            
-            return affectedRows > 0;
+            return affectedRows > 0 || userExists(conn, user.getId());
             
         } catch (SQLException e) {
-            System.err.println("Error updating user: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error updating user: " + e.getMessage(), e);
             return false;
         }
     }
@@ -129,14 +230,10 @@ public class DatabaseUserService implements UserService {
             
             int affectedRows = stmt.executeUpdate();
             
-            // Refresh the cached list
-            getAllUsers();
-            
             return affectedRows > 0;
             
         } catch (SQLException e) {
-            System.err.println("Error deleting user: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error deleting user: " + e.getMessage(), e);
             return false;
         }
     }
@@ -152,10 +249,29 @@ public class DatabaseUserService implements UserService {
             }
             
         } catch (SQLException e) {
-            System.err.println("Error counting users: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error counting users: " + e.getMessage(), e);
         }
         
         return 0;
     }
+    
+    /**
+     * Check that a user exists, for an update that changed no rows because the user
+     * already had the new values
+     */
+    private boolean userExists(Connection conn, int userId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT 1 FROM users WHERE id = ?")) {
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+    
+    /**
+     * Escape the LIKE wildcards in user input, so they match literally
+     */
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
\ No newline at end of file
@@ -1,157 +1,291 @@
 package services;
 
+import logging.Log;
+import logging.Logger;
+import metrics.Metrics;
+import models.RecentVote;
 import models.Vote;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * Implementation of VoteService that uses a database with enhanced double-voting prevention
  */
 public class DatabaseVoteService implements VoteService {
+    private static final Logger LOG = Log.getLogger(DatabaseVoteService.class);
+
     
     // In-memory cache to reduce database calls for repeated vote checks
-    private final Map<String, Boolean> voteCache = new ConcurrentHashMap<>();
+    // (size cap can be set with -Dvoting.voteCache.maxBytes, default 4 MB)
+    private final VoterDedupCache voteCache =
+        new VoterDedupCache(Long.getLong("voting.voteCache.maxBytes", 4 * 1024 * 1024));
+    
+    // Per-poll voter bitmaps, loaded lazily, answering hasUserVoted from memory
+    private final PollVoterIndex voterIndex = PollVoterIndex.getInstance();
+    
+    // Keeps total_votes and per-candidate counts up to date without rescanning votes
+    private final TallyService tallyService;
+    
+    // Batched ingestion settings, used when the pipeline is started lazily by castVoteAsync
+    private int ingestionBatchSize = 100;
+    private long ingestionMaxLingerMillis = 5;
+    private int ingestionQueueCapacity = 10_000;
+    
+    // Maximum number of poll IDs bound into a single IN (...) list
+    private static final int IN_CLAUSE_CHUNK_SIZE = 500;
+    
+    // Largest activity feed a caller can ask for
+    private static final int MAX_RECENT_VOTES = 100;
+    private VoteIngestionPipeline ingestionPipeline;
     
     /**
      * Ensure votes table has unique constraint to prevent double voting
      */
     private void ensureVotesTableConstraint() {
         try (Connection conn = DatabaseConnection.getConnection()) {
-            System.out.println("Checking for unique constraint on votes table...");
+            LOG.debug("Checking for unique constraint on votes table...");
             
             // Try to create the constraint - will fail if it already exists
             try (Statement stmt = conn.createStatement()) {
                 stmt.execute("ALTER TABLE votes ADD CONSTRAINT user_poll_unique UNIQUE (user_id, poll_id)");
-                System.out.println("Added unique constraint to votes table to prevent double voting");
+                LOG.debug("Added unique constraint to votes table to prevent double voting");
             } catch (SQLException e) {
                 // If it's because constraint already exists, that's ok
                 if (e.getMessage().contains("Duplicate") || e.getMessage().contains("already exists")) {
-                    System.out.println("Unique constraint for votes already exists");
+                    LOG.debug("Unique constraint for votes already exists");
                 } else {
                     // Otherwise, it's a different error
-                    System.err.println("Error creating constraint: " + e.getMessage());
-                    e.printStackTrace();
+                    LOG.error("Error creating constraint: " + e.getMessage(), e);
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error connecting to database: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error connecting to database: " + e.getMessage(), e);
         }
     }
 
     public DatabaseVoteService() {
+        this(new DatabaseTallyService());
+    }
+    
+    /**
+     * Create a new DatabaseVoteService with a specific tally service
+     *
+     * @param tallyService Tally service updated inside each vote transaction
+     */
+    public DatabaseVoteService(TallyService tallyService) {
+        this.tallyService = tallyService;
         // Ensure the database has the constraint to prevent double voting
         ensureVotesTableConstraint();
+        registerCacheMetrics();
+    }
+    
+    /**
+     * Publish the vote cache and voter index statistics over JMX
+     */
+    private void registerCacheMetrics() {
+        Map<String, Supplier<? extends Number>> gauges = new LinkedHashMap<>();
+        gauges.put("Hits", voteCache::getHitCount);
+        gauges.put("Misses", voteCache::getMissCount);
+        gauges.put("HitRatio", () -> {
+            long hits = voteCache.getHitCount();
+            long lookups = hits + voteCache.getMissCount();
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        });
+        gauges.put("Evictions", voteCache::getEvictionCount);
+        gauges.put("Size", voteCache::size);
+        gauges.put("Capacity", voteCache::getCapacity);
+        gauges.put("MemoryBytes", voteCache::getMemoryBytes);
+        gauges.put("IndexLoadedPolls", voterIndex::getLoadedPollCount);
+        gauges.put("IndexMemoryBytes", voterIndex::getMemoryBytes);
+        Metrics.registerGauges("Cache", "voteCache", gauges);
     }
     
+    /**
+     * Cast a vote in a single round trip. The insert only selects a row while the poll
+     * is active and leaves the row alone if the user_poll_unique key already has the
+     * user's vote, so the affected-row count tells whether the vote was recorded. Any
+     * other failure, such as an unknown user, is raised as an error. The reason for a
+     * rejected vote is only looked up when nothing was inserted.
+     * 
+     * @param vote Vote to cast
+     * @return Outcome of the attempt
+     */
     @Override
-    public boolean castVote(Vote vote) {
-        System.out.println("Attempting to cast vote: User " + vote.getUserId() + 
-                           " for Poll " + vote.getPollId() + 
-                           " selecting Candidate " + vote.getCandidateId());
-                           
-        // Build cache key
-        String cacheKey = vote.getUserId() + "_" + vote.getPollId();
-        
-        // Check cache first for performance
-        if (voteCache.containsKey(cacheKey) && voteCache.get(cacheKey)) {
-            System.out.println("Cache hit: User " + vote.getUserId() + " has already voted in poll " + 
-                              vote.getPollId() + ". Preventing duplicate vote.");
-            return false;
-        }
-        
-        // Now check database - CRITICAL check
-        if (hasUserVoted(vote.getUserId(), vote.getPollId())) {
-            System.out.println("User " + vote.getUserId() + " has already voted in poll " + 
-                              vote.getPollId() + ". Preventing duplicate vote.");
-            
-            // Update cache
-            voteCache.put(cacheKey, true);
-            return false;
+    public VoteResult castVote(Vote vote) {
+        // Known duplicates never reach the database
+        if (voteCache.contains(vote.getUserId(), vote.getPollId())) {
+            return VoteResult.DUPLICATE;
         }
         
-        // User hasn't voted - proceed with insert in a transaction
         try (Connection conn = DatabaseConnection.getConnection()) {
-            // Use transaction to ensure vote is recorded properly
             conn.setAutoCommit(false);
             
             try {
-                // First insert the vote
+                int insertResult;
                 try (PreparedStatement insertStmt = conn.prepareStatement(
-                        "INSERT INTO votes (poll_id, user_id, candidate_id) VALUES (?, ?, ?)",
-                        Statement.RETURN_GENERATED_KEYS)) {
-                    
-                    insertStmt.setInt(1, vote.getPollId());
-                    insertStmt.setInt(2, vote.getUserId());
-                    insertStmt.setInt(3, vote.getCandidateId());
-                    
-                    int insertResult = insertStmt.executeUpdate();
-                    System.out.println("Vote insert result: " + insertResult + " row(s) affected");
-                    
-                    if (insertResult > 0) {
-                        // Now update total votes in the poll using a subquery for accuracy
-                        try (PreparedStatement updateStmt = conn.prepareStatement(
-                                "UPDATE polls SET total_votes = (SELECT COUNT(*) FROM votes WHERE poll_id = ?) WHERE id = ?")) {
-                            
-                            updateStmt.setInt(1, vote.getPollId());
-                            updateStmt.setInt(2, vote.getPollId());
-                            
-                            int updateResult = updateStmt.executeUpdate();
-                            System.out.println("Poll update result: " + updateResult + " row(s) affected");
-                            
-                            // If all operations were successful, commit
-                            conn.commit();
-                            System.out.println("Vote transaction committed successfully!");
-                            
-                            // Update cache on successful vote
-                            voteCache.put(cacheKey, true);
-                            
-                            return true;
-                        }
-                    } else {
-                        // Something went wrong with the insert
-                        conn.rollback();
-                        System.out.println("Vote insert failed, transaction rolled back");
-                        return false;
-                    }
+                        "INSERT INTO votes (poll_id, user_id, candidate_id) " +
+                        "SELECT id, ?, ? FROM polls WHERE id = ? AND status = 'Active' " +
+                        "ON DUPLICATE KEY UPDATE id = id")) {
+                    insertStmt.setInt(1, vote.getUserId());
+                    insertStmt.setInt(2, vote.getCandidateId());
+                    insertStmt.setInt(3, vote.getPollId());
+                    insertResult = insertStmt.executeUpdate();
                 }
-            } catch (SQLException ex) {
-                // Handle constraint violation specifically
-                conn.rollback();
                 
-                // Check for unique constraint violation (varies by database system)
-                if (ex.getMessage().contains("user_poll_unique") || 
-                    ex.getMessage().contains("Duplicate entry") ||
-                    ex.getSQLState().equals("23000") ||  // MySQL
-                    ex.getSQLState().equals("23505")) {  // PostgreSQL
-                    
-                    System.out.println("Duplicate vote detected by database constraint: " + ex.getMessage());
+                if (insertResult > 0) {
+                    // Increment the poll and candidate tallies in the same transaction
+                    tallyService.recordVote(conn, vote.getPollId(), vote.getCandidateId());
+                    conn.commit();
                     
-                    // Update cache to prevent future attempts
-                    voteCache.put(cacheKey, true);
-                    
-                    return false;
+                    voteCache.add(vote.getUserId(), vote.getPollId());
+                    voterIndex.recordVote(vote.getUserId(), vote.getPollId());
+                    recordInTallyEngine(vote);
+                    updateCachedPoll(vote);
+                    LOG.debug(() -> "Vote recorded: User " + vote.getUserId() + " in poll " + vote.getPollId());
+                    return VoteResult.ACCEPTED;
                 }
                 
-                System.err.println("Error in vote transaction: " + ex.getMessage());
-                ex.printStackTrace();
-                return false;
+                conn.rollback();
+                VoteResult result = classifyRejectedVote(conn, vote);
+                if (result == VoteResult.DUPLICATE) {
+                    voteCache.add(vote.getUserId(), vote.getPollId());
+                }
+                LOG.debug(() -> "Vote not recorded (" + result + "): User " + vote.getUserId() +
+                                " in poll " + vote.getPollId());
+                return result;
+            } catch (SQLException ex) {
+                conn.rollback();
+                LOG.error("Error in vote transaction: " + ex.getMessage(), ex);
+                return VoteResult.ERROR;
             } finally {
                 // Always reset auto-commit
                 conn.setAutoCommit(true);
             }
         } catch (SQLException e) {
-            System.err.println("Error connecting to database: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            LOG.error("Error connecting to database: " + e.getMessage(), e);
+            return VoteResult.ERROR;
+        }
+    }
+    
+    /**
+     * Work out why a vote insert affected no rows
+     */
+    private VoteResult classifyRejectedVote(Connection conn, Vote vote) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT status FROM polls WHERE id = ?")) {
+            stmt.setInt(1, vote.getPollId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || !"Active".equals(rs.getString("status"))) {
+                    return VoteResult.POLL_CLOSED;
+                }
+            }
+        }
+        // The poll is open, so the insert hit the unique key unless the vote has
+        // since been deleted or the poll only just opened
+        return voteExists(conn, vote.getUserId(), vote.getPollId()) ? VoteResult.DUPLICATE : VoteResult.ERROR;
+    }
+    
+    /**
+     * Check for a vote row directly in the database
+     */
+    private boolean voteExists(Connection conn, int userId, int pollId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT 1 FROM votes WHERE user_id = ? AND poll_id = ? LIMIT 1")) {
+            stmt.setInt(1, userId);
+            stmt.setInt(2, pollId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+    
+    /**
+     * Queue a vote for group-commit ingestion. Votes are written in batches by a
+     * background writer, sharing one transaction and one commit per batch.
+     * 
+     * @param vote Vote to cast
+     * @return Future completed with the outcome once the vote is durable
+     */
+    @Override
+    public CompletableFuture<VoteResult> castVoteAsync(Vote vote) {
+        if (voteCache.contains(vote.getUserId(), vote.getPollId())) {
+            return CompletableFuture.completedFuture(VoteResult.DUPLICATE);
+        }
+        return getIngestionPipeline().submit(vote);
+    }
+    
+    /**
+     * Configure batched ingestion. Takes effect the next time the pipeline is started.
+     * 
+     * @param batchSize Maximum number of votes committed together
+     * @param maxLingerMillis How long the writer waits for a batch to fill up
+     * @param queueCapacity Maximum number of votes waiting to be written
+     */
+    public synchronized void configureBatchedIngestion(int batchSize, long maxLingerMillis, int queueCapacity) {
+        this.ingestionBatchSize = batchSize;
+        this.ingestionMaxLingerMillis = maxLingerMillis;
+        this.ingestionQueueCapacity = queueCapacity;
+    }
+    
+    /**
+     * Write any queued votes and stop the batched ingestion writer
+     */
+    public synchronized void shutdownBatchedIngestion() {
+        if (ingestionPipeline != null) {
+            ingestionPipeline.shutdown();
+            ingestionPipeline = null;
+        }
+    }
+    
+    private synchronized VoteIngestionPipeline getIngestionPipeline() {
+        if (ingestionPipeline == null) {
+            ingestionPipeline = new VoteIngestionPipeline(
+                ingestionBatchSize, ingestionMaxLingerMillis, ingestionQueueCapacity, tallyService,
+                vote -> {
+                    voteCache.add(vote.getUserId(), vote.getPollId());
+                    voterIndex.recordVote(vote.getUserId(), vote.getPollId());
+                    recordInTallyEngine(vote);
+                    updateCachedPoll(vote);
+                });
+        }
+        return ingestionPipeline;
+    }
+    
+    /**
+     * Count a committed vote in the in-memory tally engine, if it is running
+     */
+    private void recordInTallyEngine(Vote vote) {
+        TallyEngine engine = TallyEngine.getInstance();
+        if (engine != null) {
+            engine.recordVote(vote.getPollId(), vote.getCandidateId());
         }
     }
     
     /**
-     * Check if a user has already voted in a poll
+     * Count a committed vote in the cached poll, and let the shared results cache know
+     * the poll's counts have changed, if it is running
+     */
+    private void updateCachedPoll(Vote vote) {
+        PollCache.getInstance().recordVote(vote.getPollId());
+        PollResultsCache resultsCache = PollResultsCache.getInstance();
+        if (resultsCache != null) {
+            resultsCache.invalidate(vote.getPollId());
+        }
+    }
+    
+    /**
+     * Check if a user has already voted in a poll.
+     * Answered from the poll's in-memory voter bitmap, which is loaded on first use;
+     * the database is only queried directly if the bitmap cannot be loaded.
      * 
      * @param userId User ID
      * @param pollId Poll ID
@@ -160,57 +294,83 @@ public class DatabaseVoteService implements VoteService {
     @Override
     public boolean hasUserVoted(int userId, int pollId) {
         if (userId <= 0 || pollId <= 0) {
-            System.out.println("Invalid userId or pollId in hasUserVoted check: userId=" + userId + ", pollId=" + pollId);
+            LOG.debug(() -> "Invalid userId or pollId in hasUserVoted check: userId=" + userId + ", pollId=" + pollId);
             return false;
         }
         
-        System.out.println("Checking if user " + userId + " has voted in poll " + pollId);
+        Boolean indexed = voterIndex.hasVoted(userId, pollId);
+        if (indexed != null) {
+            return indexed;
+        }
         
-        // First try checking with a COUNT query for efficiency
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                 "SELECT COUNT(*) FROM votes WHERE user_id = ? AND poll_id = ?")) {
-                 
-            stmt.setInt(1, userId);
-            stmt.setInt(2, pollId);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    int count = rs.getInt(1);
-                    boolean hasVoted = count > 0;
-                    
-                    System.out.println("Database count check: User " + userId + 
-                                      (hasVoted ? " HAS voted" : " has NOT voted") + 
-                                      " in poll " + pollId + " (count=" + count + ")");
-                    
-                    // If count says they voted, double-check by fetching actual record
-                    if (hasVoted) {
-                        PreparedStatement verifyStmt = conn.prepareStatement(
-                            "SELECT id, candidate_id FROM votes WHERE user_id = ? AND poll_id = ?");
-                        verifyStmt.setInt(1, userId);
-                        verifyStmt.setInt(2, pollId);
-                        
-                        ResultSet verifyRs = verifyStmt.executeQuery();
-                        if (verifyRs.next()) {
-                            System.out.println("Verified vote: ID=" + verifyRs.getInt("id") + 
-                                              ", Candidate=" + verifyRs.getInt("candidate_id"));
-                        } else {
-                            System.out.println("Warning: Count showed votes but none found in direct query!");
-                            hasVoted = false;  // Correct the result
+        // Bitmap unavailable - fall back to a single existence check
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return voteExists(conn, userId, pollId);
+        } catch (SQLException e) {
+            LOG.error("Error checking if user voted: " + e.getMessage(), e);
+            return false;
+        }
+    }
+    
+    /**
+     * Check which of the given polls a user has voted in.
+     * Uses the (user_id, poll_id) unique index, one query per 500 poll IDs.
+     * 
+     * @param userId User ID
+     * @param pollIds Poll IDs to check
+     * @return IDs of the polls the user has voted in
+     */
+    @Override
+    public Set<Integer> getVotedPollIds(int userId, Collection<Integer> pollIds) {
+        Set<Integer> voted = new HashSet<>();
+        if (userId <= 0 || pollIds.isEmpty()) {
+            return voted;
+        }
+        
+        List<Integer> ids = new ArrayList<>(new HashSet<>(pollIds));
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (int start = 0; start < ids.size(); start += IN_CLAUSE_CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(start, Math.min(ids.size(), start + IN_CLAUSE_CHUNK_SIZE));
+                StringBuilder sql = new StringBuilder("SELECT poll_id FROM votes WHERE user_id = ? AND poll_id IN (");
+                for (int i = 0; i < chunk.size(); i++) {
+                    sql.append(i == 0 ? "?" : ", ?");
+                }
+                sql.append(")");
+                
+                try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                    stmt.setInt(1, userId);
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setInt(i + 2, chunk.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            int pollId = rs.getInt(1);
+                            voted.add(pollId);
+                            voteCache.add(userId, pollId);
                         }
-                        verifyRs.close();
-                        verifyStmt.close();
                     }
-                    
-                    return hasVoted;
                 }
             }
-            return false;
         } catch (SQLException e) {
-            System.err.println("Error checking if user voted: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            LOG.error("Error getting voted polls for user: " + e.getMessage(), e);
+        }
+        return voted;
+    }
+    
+    /**
+     * Check which of the given polls a user has voted in, as a bitset indexed by poll ID
+     * 
+     * @param userId User ID
+     * @param pollIds Poll IDs to check
+     * @return Bitset with the bit for each voted poll ID set
+     */
+    @Override
+    public BitSet getVotedPollBits(int userId, Collection<Integer> pollIds) {
+        BitSet bits = new BitSet();
+        for (int pollId : getVotedPollIds(userId, pollIds)) {
+            bits.set(pollId);
         }
+        return bits;
     }
     
     /**
@@ -218,7 +378,15 @@ public class DatabaseVoteService implements VoteService {
      */
     public void clearVoteCache() {
         voteCache.clear();
-        System.out.println("Vote cache cleared");
+        voterIndex.clear();
+        LOG.debug("Vote cache cleared");
+    }
+    
+    /**
+     * @return The voter dedup cache, for inspecting its size and hit/miss counters
+     */
+    public VoterDedupCache getVoteCache() {
+        return voteCache;
     }
     
     /**
@@ -247,14 +415,15 @@ public class DatabaseVoteService implements VoteService {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error getting votes for poll: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error getting votes for poll: " + e.getMessage(), e);
         }
         return votes;
     }
     
     /**
-     * Get the count of votes for a specific candidate in a poll
+     * Get the count of votes for a specific candidate in a poll.
+     * Served from the in-memory tally engine when it is running, otherwise from the
+     * materialized tally maintained by the vote write path (a primary-key lookup).
      * 
      * @param pollId Poll ID
      * @param candidateId Candidate ID (1 or 2)
@@ -262,34 +431,90 @@ public class DatabaseVoteService implements VoteService {
      */
     @Override
     public int getVoteCountForCandidate(int pollId, int candidateId) {
+        TallyEngine engine = TallyEngine.getInstance();
+        if (engine != null) {
+            return engine.getCount(pollId, candidateId);
+        }
+        
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(
-                 "SELECT COUNT(*) FROM votes WHERE poll_id = ? AND candidate_id = ?")) {
+                 "SELECT votes FROM poll_candidate_tallies WHERE poll_id = ? AND candidate_id = ?")) {
                  
             stmt.setInt(1, pollId);
             stmt.setInt(2, candidateId);
             
-            System.out.println("Executing SQL: SELECT COUNT(*) FROM votes WHERE poll_id = " + 
-                              pollId + " AND candidate_id = " + candidateId);
-                              
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    int count = rs.getInt(1);
-                    System.out.println("Vote count for candidate " + candidateId + 
-                                      " in poll " + pollId + ": " + count);
-                    return count;
+                    return rs.getInt(1);
                 }
             }
             
-            System.out.println("No votes found");
+            // No tally row yet means nobody has voted for this candidate
             return 0;
         } catch (SQLException e) {
-            System.err.println("Error getting vote count for candidate: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error getting vote count for candidate: " + e.getMessage(), e);
             return 0;
         }
     }
     
+    /**
+     * Get per-candidate vote counts for many polls at once.
+     * Served from the in-memory tally engine when it is running, otherwise read from
+     * the materialized tallies with one query per 500 poll IDs.
+     * 
+     * @param pollIds Poll IDs
+     * @return Map from poll ID to counts, where counts[0] is candidate 1 and counts[1] is candidate 2
+     */
+    @Override
+    public Map<Integer, int[]> getResults(Collection<Integer> pollIds) {
+        Map<Integer, int[]> results = new HashMap<>();
+        for (int pollId : pollIds) {
+            results.put(pollId, new int[2]);
+        }
+        if (results.isEmpty()) {
+            return results;
+        }
+        
+        TallyEngine engine = TallyEngine.getInstance();
+        if (engine != null) {
+            for (Map.Entry<Integer, int[]> entry : results.entrySet()) {
+                entry.getValue()[0] = engine.getCount(entry.getKey(), 1);
+                entry.getValue()[1] = engine.getCount(entry.getKey(), 2);
+            }
+            return results;
+        }
+        
+        List<Integer> ids = new ArrayList<>(results.keySet());
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (int start = 0; start < ids.size(); start += IN_CLAUSE_CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(start, Math.min(ids.size(), start + IN_CLAUSE_CHUNK_SIZE));
+                StringBuilder sql = new StringBuilder(
+                    "SELECT poll_id, candidate_id, votes FROM poll_candidate_tallies WHERE poll_id IN (");
+                for (int i = 0; i < chunk.size(); i++) {
+                    sql.append(i == 0 ? "?" : ", ?");
+                }
+                sql.append(")");
+                
+                try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setInt(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            int candidateId = rs.getInt("candidate_id");
+                            if (candidateId == 1 || candidateId == 2) {
+                                results.get(rs.getInt("poll_id"))[candidateId - 1] = rs.getInt("votes");
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("Error getting poll results: " + e.getMessage(), e);
+        }
+        return results;
+    }
+    
     /**
      * Get all polls that the user has voted in
      * 
@@ -301,7 +526,7 @@ public class DatabaseVoteService implements VoteService {
         List<Integer> votedPolls = new ArrayList<>();
         
         if (userId <= 0) {
-            System.out.println("Invalid userId in getPollsVotedByUser: " + userId);
+            LOG.debug(() -> "Invalid userId in getPollsVotedByUser: " + userId);
             return votedPolls;
         }
         
@@ -317,21 +542,67 @@ public class DatabaseVoteService implements VoteService {
                     votedPolls.add(pollId);
                     
                     // Update cache for each poll
-                    voteCache.put(userId + "_" + pollId, true);
+                    voteCache.add(userId, pollId);
                     
-                    System.out.println("Found vote by user " + userId + " for poll " + pollId);
+                    LOG.debug(() -> "Found vote by user " + userId + " for poll " + pollId);
                 }
             }
             
-            System.out.println("User " + userId + " has voted in " + votedPolls.size() + " polls: " + votedPolls);
+            LOG.debug(() -> "User " + userId + " has voted in " + votedPolls.size() + " polls: " + votedPolls);
         } catch (SQLException e) {
-            System.err.println("Error getting polls voted by user: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error getting polls voted by user: " + e.getMessage(), e);
         }
         
         return votedPolls;
     }
     
+    /**
+     * Get the user's most recent votes, newest first, with the polls they were cast in.
+     * Reads at most {@code limit} entries of the (user_id, cast_at) index
+     * 
+     * @param userId User ID
+     * @param limit Maximum number of votes to return
+     * @return List of recent votes
+     */
+    @Override
+    public List<RecentVote> getRecentVotes(int userId, int limit) {
+        List<RecentVote> recentVotes = new ArrayList<>();
+        
+        if (userId <= 0 || limit <= 0) {
+            return recentVotes;
+        }
+        
+        String sql = "SELECT v.poll_id, v.candidate_id, v.cast_at, p.name, p.status, p.candidate1, p.candidate2 " +
+                     "FROM votes v JOIN polls p ON p.id = v.poll_id " +
+                     "WHERE v.user_id = ? ORDER BY v.cast_at DESC, v.id DESC LIMIT ?";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, userId);
+            stmt.setInt(2, Math.min(limit, MAX_RECENT_VOTES));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String candidateName = rs.getInt("candidate_id") == 1
+                        ? rs.getString("candidate1") : rs.getString("candidate2");
+                    Timestamp castAt = rs.getTimestamp("cast_at");
+                    recentVotes.add(new RecentVote(
+                        rs.getInt("poll_id"),
+                        rs.getString("name"),
+                        rs.getString("status"),
+                        candidateName,
+                        castAt != null ? castAt.toLocalDateTime() : null
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("Error getting recent votes: " + e.getMessage(), e);
+        }
+        
+        return recentVotes;
+    }
+    
     /**
      * Get user's vote for a specific poll
      * 
@@ -351,7 +622,7 @@ public class DatabaseVoteService implements VoteService {
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
                     // If vote is found, update the cache
-                    voteCache.put(userId + "_" + pollId, true);
+                    voteCache.add(userId, pollId);
                     
                     return new Vote(
                         rs.getInt("id"),
@@ -362,8 +633,7 @@ public class DatabaseVoteService implements VoteService {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error getting user vote: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error getting user vote: " + e.getMessage(), e);
         }
         
         return null;
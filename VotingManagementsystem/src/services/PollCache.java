@@ -0,0 +1,190 @@
+package services;
+
+import logging.Log;
+import logging.Logger;
+import models.Poll;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Process-wide write-through cache of polls keyed by ID.
+ * DatabasePollService reads single polls through it and applies each of its writes to
+ * the cached entry after the database statement succeeds, then tells listeners about
+ * that one poll, so nothing has to reload the polls table after a change. Vote commits
+ * and recounts keep the cached vote totals current.
+ *
+ * Entries are dropped once they are older than the TTL, so changes made by other
+ * processes are picked up; the size and TTL can be set with -Dvoting.pollCache.maxEntries
+ * (default 10000) and -Dvoting.pollCache.ttlMillis (default 30000).
+ */
+public class PollCache {
+    private static final Logger LOG = Log.getLogger(PollCache.class);
+
+    private static final PollCache INSTANCE = new PollCache(
+        Integer.getInteger("voting.pollCache.maxEntries", 10_000),
+        Long.getLong("voting.pollCache.ttlMillis", 30 * 1000));
+
+    private final long ttlNanos;
+    // Least recently used first; guarded by itself
+    private final Map<Integer, Entry> entries;
+    private final List<Consumer<PollChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    private PollCache(int maxEntries, long ttlMillis) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.entries = new LinkedHashMap<Integer, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return The shared cache
+     */
+    public static PollCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Register a listener for poll changes
+     *
+     * @param listener Receives each change on the thread that made it
+     */
+    public void addListener(Consumer<PollChangeEvent> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener added with addListener
+     *
+     * @param listener Listener to remove
+     */
+    public void removeListener(Consumer<PollChangeEvent> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @param pollId Poll ID
+     * @return A copy of the cached poll, or null if it is not cached or has expired
+     */
+    public Poll get(int pollId) {
+        synchronized (entries) {
+            Entry entry = entries.get(pollId);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.loadedAtNanos > ttlNanos) {
+                entries.remove(pollId);
+                return null;
+            }
+            return copyOf(entry.poll);
+        }
+    }
+
+    /**
+     * Cache a poll read from the database, without telling listeners
+     *
+     * @param poll Poll as it is in the database
+     */
+    public void put(Poll poll) {
+        synchronized (entries) {
+            entries.put(poll.getId(), new Entry(copyOf(poll), System.nanoTime()));
+        }
+    }
+
+    /**
+     * Cache a poll that was just created and tell listeners
+     *
+     * @param poll Poll as it was inserted, with its generated ID
+     */
+    public void created(Poll poll) {
+        put(poll);
+        fire(PollChangeEvent.Type.CREATED, poll.getId(), poll);
+    }
+
+    /**
+     * Cache a poll that was just updated and tell listeners
+     *
+     * @param poll Poll as it is after the update
+     */
+    public void updated(Poll poll) {
+        put(poll);
+        fire(PollChangeEvent.Type.UPDATED, poll.getId(), poll);
+    }
+
+    /**
+     * Drop a poll that was just deleted and tell listeners
+     *
+     * @param pollId Poll ID
+     */
+    public void deleted(int pollId) {
+        invalidate(pollId);
+        fire(PollChangeEvent.Type.DELETED, pollId, null);
+    }
+
+    /**
+     * Count a committed vote in the cached poll's total, if it is cached
+     *
+     * @param pollId Poll ID
+     */
+    public void recordVote(int pollId) {
+        synchronized (entries) {
+            Entry entry = entries.get(pollId);
+            if (entry != null) {
+                entry.poll.setTotalVotes(entry.poll.getTotalVotes() + 1);
+            }
+        }
+    }
+
+    /**
+     * Drop a poll whose row was changed outside the poll service, e.g. by a recount
+     *
+     * @param pollId Poll ID
+     */
+    public void invalidate(int pollId) {
+        synchronized (entries) {
+            entries.remove(pollId);
+        }
+    }
+
+    /**
+     * Drop every cached poll
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private void fire(PollChangeEvent.Type type, int pollId, Poll poll) {
+        LOG.debug(() -> "Poll changed: " + type + " " + pollId);
+        for (Consumer<PollChangeEvent> listener : listeners) {
+            try {
+                // Each listener gets its own copy, since the Poll model is mutable
+                listener.accept(new PollChangeEvent(type, pollId, poll != null ? copyOf(poll) : null));
+            } catch (RuntimeException e) {
+                LOG.error("Error in poll change listener: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static Poll copyOf(Poll poll) {
+        return new Poll(poll.getId(), poll.getName(), poll.getCandidate1(), poll.getCandidate2(),
+                        poll.getStatus(), poll.getTotalVotes(), poll.getCreatedBy());
+    }
+
+    private static final class Entry {
+        final Poll poll;
+        final long loadedAtNanos;
+
+        Entry(Poll poll, long loadedAtNanos) {
+            this.poll = poll;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package services;
+
+import models.Poll;
+
+/**
+ * A single poll created, updated or deleted through a PollService, as sent to PollCache listeners
+ */
+public class PollChangeEvent {
+    /**
+     * What happened to the poll
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final int pollId;
+    private final Poll poll;
+
+    /**
+     * Create a new PollChangeEvent with all fields
+     */
+    public PollChangeEvent(Type type, int pollId, Poll poll) {
+        this.type = type;
+        this.pollId = pollId;
+        this.poll = poll;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getPollId() {
+        return pollId;
+    }
+
+    /**
+     * @return The poll as it is after the change, or null if it was deleted; each
+     *         listener gets its own copy
+     */
+    public Poll getPoll() {
+        return poll;
+    }
+
+    @Override
+    public String toString() {
+        return "PollChangeEvent[" + type + " " + pollId + "]";
+    }
+}
@@ -0,0 +1,80 @@
+package services;
+
+import models.Poll;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable set of poll changes returned by PollService.getChangesSince
+ */
+public class PollChanges {
+    private final List<Poll> changedPolls;
+    private final Set<Integer> deletedPollIds;
+    private final Token token;
+
+    /**
+     * Create a new PollChanges with all fields
+     */
+    public PollChanges(List<Poll> changedPolls, Set<Integer> deletedPollIds, Token token) {
+        this.changedPolls = Collections.unmodifiableList(changedPolls);
+        this.deletedPollIds = Collections.unmodifiableSet(deletedPollIds);
+        this.token = token;
+    }
+
+    /**
+     * No changes; the caller should ask again with the same token
+     *
+     * @param token Token the caller asked with
+     */
+    public static PollChanges none(Token token) {
+        return new PollChanges(Collections.emptyList(), Collections.emptySet(), token);
+    }
+
+    /**
+     * @return Polls created, updated or voted in, with their current values
+     */
+    public List<Poll> getChangedPolls() {
+        return changedPolls;
+    }
+
+    /**
+     * @return IDs of polls deleted
+     */
+    public Set<Integer> getDeletedPollIds() {
+        return deletedPollIds;
+    }
+
+    /**
+     * @return Token to pass to the next getChangesSince call
+     */
+    public Token getToken() {
+        return token;
+    }
+
+    public boolean isEmpty() {
+        return changedPolls.isEmpty() && deletedPollIds.isEmpty();
+    }
+
+    /**
+     * Position in the change history of the polls table: the database time of a check.
+     * Callers only pass it back.
+     */
+    public static final class Token {
+        private final Timestamp checkedAt;
+
+        Token(Timestamp checkedAt) {
+            this.checkedAt = checkedAt;
+        }
+
+        Timestamp getCheckedAt() {
+            return checkedAt;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(checkedAt);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package services;
+
+import models.Poll;
+
+/**
+ * Which polls PollService.getPolls returns
+ */
+public final class PollFilter {
+    private static final PollFilter ALL = new PollFilter(null, -1);
+
+    private final String status;
+    private final int votedBy;
+
+    private PollFilter(String status, int votedBy) {
+        this.status = status;
+        this.votedBy = votedBy;
+    }
+
+    /**
+     * @return Filter matching every poll
+     */
+    public static PollFilter all() {
+        return ALL;
+    }
+
+    /**
+     * @param status Poll status, e.g. "Active"
+     * @return Filter matching polls with the status
+     */
+    public static PollFilter withStatus(String status) {
+        return new PollFilter(status, -1);
+    }
+
+    /**
+     * @param userId User ID
+     * @return Filter matching the polls the user has voted in
+     */
+    public static PollFilter votedBy(int userId) {
+        return new PollFilter(null, userId);
+    }
+
+    /**
+     * @return Status to match, or null for any status
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * @return User whose voted polls to match, or -1 for any poll
+     */
+    public int getVotedBy() {
+        return votedBy;
+    }
+
+    /**
+     * Check a poll against the status part of the filter; whether a user has voted
+     * can only be checked by the caller
+     *
+     * @param poll Poll to check
+     * @return true if the poll has the status, or the filter has none
+     */
+    public boolean matchesStatus(Poll poll) {
+        return status == null || status.equals(poll.getStatus());
+    }
+
+    @Override
+    public String toString() {
+        if (votedBy >= 0) {
+            return "votedBy=" + votedBy;
+        }
+        return status != null ? "status=" + status : "all";
+    }
+}
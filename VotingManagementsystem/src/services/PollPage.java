@@ -0,0 +1,76 @@
+package services;
+
+import models.Poll;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of polls returned by PollService.getPolls
+ */
+public class PollPage {
+    private final List<Poll> polls;
+    private final Key nextKey;
+
+    /**
+     * Create a new PollPage with all fields
+     */
+    public PollPage(List<Poll> polls, Key nextKey) {
+        this.polls = Collections.unmodifiableList(polls);
+        this.nextKey = nextKey;
+    }
+
+    /**
+     * @return Polls on this page, in the requested order
+     */
+    public List<Poll> getPolls() {
+        return polls;
+    }
+
+    /**
+     * @return Key to pass as afterKey for the next page, or null if this is the last page
+     */
+    public Key getNextKey() {
+        return nextKey;
+    }
+
+    public boolean hasMore() {
+        return nextKey != null;
+    }
+
+    /**
+     * Position after the last poll of a page. It holds the sort values of that poll,
+     * so the next page is found with an index seek instead of an OFFSET scan.
+     * Callers pass it back with the same filter and sort, or make one from a poll they
+     * already have.
+     */
+    public static final class Key {
+        private final int id;
+        private final String name;
+
+        private Key(Poll last) {
+            this.id = last.getId();
+            this.name = last.getName();
+        }
+
+        /**
+         * @param last Last poll of the previous page
+         * @return Key for the page after it
+         */
+        public static Key after(Poll last) {
+            return new Key(last);
+        }
+
+        int getId() {
+            return id;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name + "/" + id;
+        }
+    }
+}
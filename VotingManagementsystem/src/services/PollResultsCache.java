@@ -0,0 +1,217 @@
+package services;
+
+import logging.Log;
+import logging.Logger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared per-candidate poll results for the admin views.
+ * Loaded with a single query over the poll_candidate_tallies table, which the vote
+ * transaction keeps current, so opening a results pane never counts votes. A poll's
+ * entry is reloaded on its next read after a vote in it commits in this process, and
+ * the whole snapshot is reloaded once it is older than the TTL, which picks up votes
+ * written by other processes.
+ *
+ * Disabled unless started; every DatabaseVoteService in the process invalidates it.
+ */
+public class PollResultsCache {
+    private static final Logger LOG = Log.getLogger(PollResultsCache.class);
+
+    // Maximum number of poll IDs bound into a single IN (...) list
+    private static final int IN_CLAUSE_CHUNK_SIZE = 500;
+
+    private static volatile PollResultsCache instance = null;
+
+    private final long ttlNanos;
+
+    // Counts per poll, where counts[0] is candidate 1 and counts[1] is candidate 2
+    private volatile Map<Integer, int[]> results = null;
+    private volatile long loadedAtNanos;
+
+    // Polls with a vote committed since their counts were loaded
+    private final Set<Integer> stale = ConcurrentHashMap.newKeySet();
+
+    private PollResultsCache(long ttlMillis) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * Start the shared cache if it is not already running
+     *
+     * @param ttlMillis How long a loaded snapshot is served before it is reloaded
+     * @return The running cache
+     */
+    public static synchronized PollResultsCache start(long ttlMillis) {
+        if (instance == null) {
+            instance = new PollResultsCache(ttlMillis);
+            LOG.info("Poll results cache started (TTL " + ttlMillis + " ms)");
+        }
+        return instance;
+    }
+
+    /**
+     * Start the shared cache with the TTL set by -Dvoting.results.ttlMillis (default 5000)
+     *
+     * @return The running cache
+     */
+    public static PollResultsCache start() {
+        return start(Long.getLong("voting.results.ttlMillis", 5 * 1000));
+    }
+
+    /**
+     * @return The running cache, or null if it has not been started
+     */
+    public static PollResultsCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Stop the shared cache
+     */
+    public static synchronized void stop() {
+        instance = null;
+    }
+
+    /**
+     * Mark a poll's counts as out of date, after a vote in it commits or it is deleted
+     *
+     * @param pollId Poll ID
+     */
+    public void invalidate(int pollId) {
+        stale.add(pollId);
+    }
+
+    /**
+     * Drop the whole snapshot, e.g. after a recount of every poll
+     */
+    public void invalidateAll() {
+        results = null;
+    }
+
+    /**
+     * @param pollId Poll ID
+     * @return Counts for the poll, where counts[0] is candidate 1 and counts[1] is candidate 2
+     */
+    public int[] getResults(int pollId) {
+        return getResults(Collections.singletonList(pollId)).get(pollId);
+    }
+
+    /**
+     * Get per-candidate vote counts for many polls at once
+     *
+     * @param pollIds Poll IDs
+     * @return Map from poll ID to counts, where counts[0] is candidate 1 and counts[1] is candidate 2;
+     *         every requested poll has an entry
+     */
+    public Map<Integer, int[]> getResults(Collection<Integer> pollIds) {
+        Map<Integer, int[]> current = results;
+        if (current == null || System.nanoTime() - loadedAtNanos > ttlNanos) {
+            current = reload();
+        } else {
+            List<Integer> outdated = new ArrayList<>();
+            for (int pollId : pollIds) {
+                // Cleared before the query, so a vote committed while it runs marks the poll again
+                if (stale.remove(pollId)) {
+                    outdated.add(pollId);
+                }
+            }
+            if (!outdated.isEmpty()) {
+                refresh(current, outdated);
+            }
+        }
+
+        Map<Integer, int[]> requested = new HashMap<>();
+        for (int pollId : pollIds) {
+            int[] counts = current.get(pollId);
+            requested.put(pollId, counts != null ? counts.clone() : new int[2]);
+        }
+        return requested;
+    }
+
+    /**
+     * Reload every poll's counts with one query, unless another reader just did
+     */
+    private synchronized Map<Integer, int[]> reload() {
+        Map<Integer, int[]> current = results;
+        if (current != null && System.nanoTime() - loadedAtNanos <= ttlNanos) {
+            return current;
+        }
+
+        long startNanos = System.nanoTime();
+        stale.clear();
+        Map<Integer, int[]> loaded = new ConcurrentHashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "SELECT poll_id, candidate_id, votes FROM poll_candidate_tallies");
+             ResultSet rs = stmt.executeQuery()) {
+            readCounts(rs, loaded);
+        } catch (SQLException e) {
+            LOG.error("Error loading poll results: " + e.getMessage(), e);
+            // Serve what we had (or nothing) and try again on the next read
+            return current != null ? current : loaded;
+        }
+
+        results = loaded;
+        loadedAtNanos = startNanos;
+        LOG.debug(() -> "Loaded results for " + loaded.size() + " polls in " +
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms");
+        return loaded;
+    }
+
+    /**
+     * Reload the counts of a few polls in place
+     */
+    private void refresh(Map<Integer, int[]> current, List<Integer> pollIds) {
+        Map<Integer, int[]> loaded = new HashMap<>();
+        for (int pollId : pollIds) {
+            loaded.put(pollId, new int[2]);
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (int start = 0; start < pollIds.size(); start += IN_CLAUSE_CHUNK_SIZE) {
+                List<Integer> chunk = pollIds.subList(start, Math.min(pollIds.size(), start + IN_CLAUSE_CHUNK_SIZE));
+                StringBuilder sql = new StringBuilder(
+                    "SELECT poll_id, candidate_id, votes FROM poll_candidate_tallies WHERE poll_id IN (");
+                for (int i = 0; i < chunk.size(); i++) {
+                    sql.append(i == 0 ? "?" : ", ?");
+                }
+                sql.append(")");
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setInt(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        readCounts(rs, loaded);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("Error refreshing poll results: " + e.getMessage(), e);
+            // Keep the old counts and retry these polls on their next read
+            stale.addAll(pollIds);
+            return;
+        }
+        current.putAll(loaded);
+    }
+
+    private static void readCounts(ResultSet rs, Map<Integer, int[]> counts) throws SQLException {
+        while (rs.next()) {
+            int candidateId = rs.getInt("candidate_id");
+            if (candidateId == 1 || candidateId == 2) {
+                counts.computeIfAbsent(rs.getInt("poll_id"), id -> new int[2])[candidateId - 1] = rs.getInt("votes");
+            }
+        }
+    }
+}
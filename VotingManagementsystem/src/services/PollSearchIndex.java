@@ -0,0 +1,418 @@
+package services;
+
+import logging.Log;
+import logging.Logger;
+import models.Poll;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * In-memory trigram index over poll and candidate names, for search as you type.
+ * Every word is indexed by its three-character substrings, plus two padded ones for
+ * its first letters, and each trigram maps to a sorted list of poll IDs. A query looks
+ * up its own trigrams and intersects the lists, newest poll first, so it only reads as
+ * many polls as it needs to fill its results.
+ *
+ * Query words of three or more characters match anywhere in a word; shorter ones
+ * match the start of a word. Polls whose name has every query word at the start of a
+ * word rank first, then other name matches, then polls matched by a candidate's name;
+ * newer polls come first within each. If nothing matches every trigram, polls
+ * matching most of them are returned instead, so a small typo still finds the poll.
+ *
+ * Built once from the polls table, then kept current by the poll write path and by
+ * the dashboards' change refreshes. Thread-safe.
+ */
+public class PollSearchIndex {
+    private static final Logger LOG = Log.getLogger(PollSearchIndex.class);
+
+    // Polls read per query while building
+    private static final int BUILD_PAGE_SIZE = 1000;
+
+    // Share of a query's trigrams a poll must have to be returned when nothing has all of them
+    private static final double FUZZY_MATCH_SHARE = 0.5;
+
+    private static volatile PollSearchIndex instance = null;
+
+    // Normalised text of each indexed poll, used for ranking and to find its trigrams on removal
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    // Trigrams of poll names alone, and of poll and candidate names together
+    private final Map<Long, Postings> namePostings = new HashMap<>();
+    private final Map<Long, Postings> textPostings = new HashMap<>();
+    private int maxPollId;
+
+    /**
+     * Build the shared index from the polls table if it has not been built yet.
+     * An index that is missing polls because a read failed is returned for this
+     * search but not shared, so the next search builds it again
+     *
+     * @param pollService Service to read the polls from
+     * @return The shared index, or an unshared one if not every poll could be read
+     */
+    public static synchronized PollSearchIndex build(PollService pollService) {
+        if (instance != null) {
+            return instance;
+        }
+        long start = System.nanoTime();
+        PollSearchIndex index = new PollSearchIndex();
+        // Changes made while the pages are read are applied afterwards
+        PollChanges.Token token = pollService.getChangeToken();
+        PollPage.Key afterKey = null;
+        do {
+            PollPage page = pollService.getPolls(PollFilter.all(), PollSort.OLDEST, afterKey, BUILD_PAGE_SIZE);
+            for (Poll poll : page.getPolls()) {
+                index.put(poll);
+            }
+            afterKey = page.getNextKey();
+        } while (afterKey != null);
+        if (token != null) {
+            index.apply(pollService.getChangesSince(token));
+        }
+        // A page that fails to load comes back empty and ends the loop early
+        if (token == null || index.size() < pollService.getPollCount()) {
+            LOG.warn("Poll search index is incomplete (" + index.size() + " polls); it will be rebuilt on the next search");
+            return index;
+        }
+        instance = index;
+        LOG.info("Poll search index built: " + index.size() + " polls, " + index.textPostings.size()
+                 + " trigrams in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return index;
+    }
+
+    /**
+     * @return The shared index, or null if it has not been built
+     */
+    public static PollSearchIndex getInstance() {
+        return instance;
+    }
+
+    /**
+     * Add a poll, or re-index it if its names changed
+     *
+     * @param poll Poll to index
+     */
+    public void put(Poll poll) {
+        put(poll.getId(), poll.getName(), poll.getCandidate1(), poll.getCandidate2());
+    }
+
+    /**
+     * Add a poll, or re-index it if its names changed
+     *
+     * @param pollId Poll ID
+     * @param name Poll name
+     * @param candidate1 First candidate's name
+     * @param candidate2 Second candidate's name
+     */
+    public synchronized void put(int pollId, String name, String candidate1, String candidate2) {
+        Entry entry = new Entry(normalize(name), normalize(candidate1) + normalize(candidate2));
+        Entry previous = entries.get(pollId);
+        if (previous != null) {
+            if (previous.text.equals(entry.text)) {
+                return;
+            }
+            removeEntry(pollId, previous);
+        }
+        entries.put(pollId, entry);
+        maxPollId = Math.max(maxPollId, pollId);
+        for (long trigram : trigramsOf(entry.name)) {
+            namePostings.computeIfAbsent(trigram, t -> new Postings()).add(pollId);
+        }
+        for (long trigram : trigramsOf(entry.text)) {
+            textPostings.computeIfAbsent(trigram, t -> new Postings()).add(pollId);
+        }
+    }
+
+    /**
+     * Remove a poll
+     *
+     * @param pollId Poll ID
+     */
+    public synchronized void remove(int pollId) {
+        Entry entry = entries.remove(pollId);
+        if (entry != null) {
+            removeEntry(pollId, entry);
+        }
+    }
+
+    /**
+     * Apply changes read from PollService.getChangesSince
+     *
+     * @param changes Changed and deleted polls
+     */
+    public synchronized void apply(PollChanges changes) {
+        for (Poll poll : changes.getChangedPolls()) {
+            put(poll);
+        }
+        for (int pollId : changes.getDeletedPollIds()) {
+            remove(pollId);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Find polls whose name or candidates match a query, best first
+     *
+     * @param query Search text; case and punctuation are ignored
+     * @param limit Most poll IDs to return
+     * @return Matching poll IDs, best first
+     */
+    public synchronized List<Integer> search(String query, int limit) {
+        String normalized = normalize(query).trim();
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String[] words = normalized.split(" ");
+        // What each word must appear as: anywhere for long words, a word start for short ones
+        String[] needles = new String[words.length];
+        String[] wordStarts = new String[words.length];
+        Set<Long> queryTrigrams = new LinkedHashSet<>();
+        for (int i = 0; i < words.length; i++) {
+            wordStarts[i] = " " + words[i];
+            needles[i] = words[i].length() >= 3 ? words[i] : wordStarts[i];
+            // Short words match at the start of a word, so they use the padded trigrams
+            addTrigrams(queryTrigrams, words[i].length() >= 3 ? words[i] : "  " + words[i]);
+        }
+
+        List<Integer> result = new ArrayList<>(limit);
+        // Polls matching every word in the name: word starts first, then the rest
+        List<Integer> nameMatches = new ArrayList<>();
+        List<Postings> nameLists = lookup(namePostings, queryTrigrams);
+        if (nameLists != null) {
+            walkNewestFirst(nameLists, pollId -> {
+                String name = entries.get(pollId).name;
+                if (containsAll(name, wordStarts)) {
+                    result.add(pollId);
+                } else if (containsAll(name, needles)) {
+                    nameMatches.add(pollId);
+                }
+                // Nothing later can outrank a full list of word-start matches
+                return result.size() < limit;
+            });
+        }
+        for (int i = 0; i < nameMatches.size() && result.size() < limit; i++) {
+            result.add(nameMatches.get(i));
+        }
+
+        // Then polls matched through their candidates
+        List<Postings> textLists = result.size() < limit ? lookup(textPostings, queryTrigrams) : null;
+        if (textLists != null) {
+            walkNewestFirst(textLists, pollId -> {
+                Entry entry = entries.get(pollId);
+                if (!containsAll(entry.name, needles) && containsAll(entry.text, needles)) {
+                    result.add(pollId);
+                }
+                return result.size() < limit;
+            });
+        }
+
+        if (result.isEmpty() && queryTrigrams.size() >= 3) {
+            fuzzySearch(queryTrigrams, limit, result);
+        }
+        return result;
+    }
+
+    /**
+     * Find polls with most of the query's trigrams, most first and then newest first
+     */
+    private void fuzzySearch(Set<Long> queryTrigrams, int limit, List<Integer> result) {
+        int[] counts = new int[maxPollId + 1];
+        for (long trigram : queryTrigrams) {
+            Postings list = textPostings.get(trigram);
+            if (list != null) {
+                for (int i = 0; i < list.size; i++) {
+                    counts[list.ids[i]]++;
+                }
+            }
+        }
+        int needed = (int) Math.ceil(queryTrigrams.size() * FUZZY_MATCH_SHARE);
+        // One pass, newest first, keeping up to limit polls for each count
+        List<List<Integer>> byCount = new ArrayList<>();
+        for (int count = 0; count <= queryTrigrams.size(); count++) {
+            byCount.add(new ArrayList<>());
+        }
+        for (int pollId = maxPollId; pollId > 0; pollId--) {
+            int count = counts[pollId];
+            if (count >= needed && byCount.get(count).size() < limit) {
+                byCount.get(count).add(pollId);
+            }
+        }
+        for (int count = queryTrigrams.size(); count >= needed && result.size() < limit; count--) {
+            for (int pollId : byCount.get(count)) {
+                if (result.size() == limit) {
+                    break;
+                }
+                result.add(pollId);
+            }
+        }
+    }
+
+    private void removeEntry(int pollId, Entry entry) {
+        removePostings(namePostings, trigramsOf(entry.name), pollId);
+        removePostings(textPostings, trigramsOf(entry.text), pollId);
+    }
+
+    private static void removePostings(Map<Long, Postings> postings, Set<Long> trigrams, int pollId) {
+        for (long trigram : trigrams) {
+            Postings list = postings.get(trigram);
+            if (list != null && list.remove(pollId) && list.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * @return The lists for the trigrams, or null if any trigram has none, since then nothing matches
+     */
+    private static List<Postings> lookup(Map<Long, Postings> postings, Set<Long> trigrams) {
+        List<Postings> lists = new ArrayList<>(trigrams.size());
+        for (long trigram : trigrams) {
+            Postings list = postings.get(trigram);
+            if (list == null) {
+                return null;
+            }
+            lists.add(list);
+        }
+        return lists;
+    }
+
+    /**
+     * Visit the IDs in every list, highest first, until the visitor returns false.
+     * Walks the shortest list and binary searches the others below the last match
+     */
+    private static void walkNewestFirst(List<Postings> lists, IntPredicate visitor) {
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        Postings shortest = lists.get(0);
+        int[] limits = new int[lists.size()];
+        for (int j = 1; j < lists.size(); j++) {
+            limits[j] = lists.get(j).size;
+        }
+        candidates:
+        for (int i = shortest.size - 1; i >= 0; i--) {
+            int pollId = shortest.ids[i];
+            for (int j = 1; j < lists.size(); j++) {
+                Postings other = lists.get(j);
+                int found = Arrays.binarySearch(other.ids, 0, limits[j], pollId);
+                // Later candidates are smaller, so the search can stop here next time
+                limits[j] = found >= 0 ? found : -found - 1;
+                if (found < 0) {
+                    continue candidates;
+                }
+            }
+            if (!visitor.test(pollId)) {
+                return;
+            }
+        }
+    }
+
+    private static boolean containsAll(String text, String[] needles) {
+        for (String needle : needles) {
+            if (!text.contains(needle)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lower-case the text and turn everything but letters and digits into single spaces,
+     * each word preceded by one
+     */
+    static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder();
+        if (text == null) {
+            return "";
+        }
+        boolean inWord = false;
+        for (char c : text.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                if (!inWord) {
+                    normalized.append(' ');
+                    inWord = true;
+                }
+                normalized.append(c);
+            } else {
+                inWord = false;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Trigrams of normalised text. Each word is preceded by two spaces, so "  a" and " ab"
+     * mark the start of a word beginning "ab"
+     */
+    private static Set<Long> trigramsOf(String text) {
+        Set<Long> trigrams = new LinkedHashSet<>();
+        for (String word : text.trim().split(" ")) {
+            if (!word.isEmpty()) {
+                addTrigrams(trigrams, "  " + word);
+            }
+        }
+        return trigrams;
+    }
+
+    private static void addTrigrams(Set<Long> trigrams, String text) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+    }
+
+    /**
+     * Normalised names of one poll
+     */
+    private static final class Entry {
+        private final String name;
+        // Poll name followed by the candidates' names
+        private final String text;
+
+        Entry(String name, String candidates) {
+            this.name = name;
+            this.text = name + candidates;
+        }
+    }
+
+    /**
+     * Sorted, growable list of poll IDs for one trigram. Polls are mostly indexed in
+     * ID order, so adding is usually an append
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int pollId) {
+            int index = size > 0 && ids[size - 1] < pollId ? size : Arrays.binarySearch(ids, 0, size, pollId);
+            if (index >= 0 && index < size) {
+                return;
+            }
+            if (index < 0) {
+                index = -index - 1;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = pollId;
+            size++;
+        }
+
+        boolean remove(int pollId) {
+            int index = Arrays.binarySearch(ids, 0, size, pollId);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
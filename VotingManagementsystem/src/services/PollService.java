@@ -2,6 +2,7 @@ package services;
 
 import javafx.collections.ObservableList;
 import models.Poll;
+import java.util.List;
 
 /**
  * Service interface for Poll operations
@@ -14,6 +15,67 @@ public interface PollService {
      */
     ObservableList<Poll> getAllPolls();
     
+    /**
+     * Get a specific poll by its ID
+     * 
+     * @param pollId ID of the poll
+     * @return The poll, or null if not found
+     */
+    Poll getPollById(int pollId);
+    
+    /**
+     * Get several polls by ID with one query
+     * 
+     * @param pollIds IDs of the polls
+     * @return The polls that exist, in the order of the IDs
+     */
+    List<Poll> getPollsByIds(List<Integer> pollIds);
+    
+    /**
+     * Get polls that are open for voting
+     * 
+     * @return List of active polls
+     */
+    ObservableList<Poll> getActivePolls();
+    
+    /**
+     * Get polls that have been closed
+     * 
+     * @return List of completed polls
+     */
+    ObservableList<Poll> getCompletedPolls();
+    
+    /**
+     * Get one page of polls. Pages are found by key rather than by offset, so the
+     * cost of a page does not grow with how far into the list it is
+     * 
+     * @param filter Polls to include
+     * @param sort Order of the polls
+     * @param afterKey Key from the previous page, or null for the first page
+     * @param limit Most polls to return
+     * @return The page, empty if the polls could not be loaded
+     */
+    PollPage getPolls(PollFilter filter, PollSort sort, PollPage.Key afterKey, int limit);
+    
+    /**
+     * Get a token marking the current state of the polls table.
+     * Take it before loading polls, so changes made during the load are not missed
+     * 
+     * @return Token for getChangesSince, or null if it could not be read
+     */
+    PollChanges.Token getChangeToken();
+    
+    /**
+     * Get the polls created, updated, voted in or deleted since a token was taken.
+     * A few changes just before the token may be returned again. Deletions are only
+     * kept for -Dvoting.tombstones.retentionHours (default 24), so a token older than
+     * that may miss some
+     * 
+     * @param token Token from getChangeToken or an earlier getChangesSince
+     * @return Changes with the token for the next call
+     */
+    PollChanges getChangesSince(PollChanges.Token token);
+    
     /**
      * Create a new poll
      * 
@@ -0,0 +1,31 @@
+package services;
+
+import models.Poll;
+import java.util.Comparator;
+
+/**
+ * Orders for pages of polls returned by PollService.getPolls.
+ * Every order ends with the poll ID, so it is total and a page can continue after any poll
+ */
+public enum PollSort {
+    /** Most recently created first */
+    NEWEST(Comparator.comparingInt(Poll::getId).reversed()),
+    /** Oldest first */
+    OLDEST(Comparator.comparingInt(Poll::getId)),
+    /** By name, then oldest first */
+    NAME(Comparator.comparing(Poll::getName).thenComparingInt(Poll::getId));
+
+    private final Comparator<Poll> comparator;
+
+    PollSort(Comparator<Poll> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * @return Comparator giving the same order as the database, except that names are
+     *         compared by Java string order rather than the column collation
+     */
+    public Comparator<Poll> comparator() {
+        return comparator;
+    }
+}
@@ -0,0 +1,206 @@
+package services;
+
+import logging.Log;
+import logging.Logger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-poll voter bitmaps for answering "has this user voted?" from memory.
+ * A poll's bitmap is loaded with one query the first time the poll is checked,
+ * then kept current as votes are committed in this process. Each bitmap remembers
+ * the highest vote ID it has read, and a "not voted" answer older than the refresh
+ * interval first reads the poll's newer votes, so votes cast by other processes are
+ * picked up. The interval can be set with -Dvoting.voterIndex.refreshMillis (default 5000).
+ *
+ * One index is shared by every vote service in the process.
+ */
+public class PollVoterIndex {
+    private static final Logger LOG = Log.getLogger(PollVoterIndex.class);
+
+    private static final PollVoterIndex INSTANCE =
+        new PollVoterIndex(Long.getLong("voting.voterIndex.refreshMillis", 5 * 1000));
+
+    private final long refreshNanos;
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    PollVoterIndex(long refreshMillis) {
+        this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(refreshMillis);
+    }
+
+    /**
+     * @return The shared index
+     */
+    public static PollVoterIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Check whether a user has voted in a poll, loading the poll's voters if needed
+     *
+     * @param userId User ID
+     * @param pollId Poll ID
+     * @return true or false, or null if the poll's voters could not be loaded
+     */
+    public Boolean hasVoted(int userId, int pollId) {
+        Entry entry = entries.get(pollId);
+        if (entry == null) {
+            entry = load(pollId);
+            if (entry == null) {
+                return null;
+            }
+        }
+        long lastVoteId;
+        synchronized (entry) {
+            // Votes are never taken back, so only a "no" can be out of date
+            if (entry.bitmap.contains(userId) || System.nanoTime() - entry.checkedAtNanos <= refreshNanos) {
+                return entry.bitmap.contains(userId);
+            }
+            lastVoteId = entry.lastVoteId;
+        }
+        if (!catchUp(entry, pollId, lastVoteId)) {
+            return null;
+        }
+        synchronized (entry) {
+            return entry.bitmap.contains(userId);
+        }
+    }
+
+    /**
+     * Record a committed vote. Polls whose voters are not loaded are left alone;
+     * they pick the vote up from the database when they are loaded.
+     *
+     * @param userId User ID
+     * @param pollId Poll ID
+     */
+    public void recordVote(int userId, int pollId) {
+        // computeIfPresent waits for an in-flight load of the same poll, so a vote
+        // committed while the poll is loading is never lost
+        entries.computeIfPresent(pollId, (id, entry) -> {
+            synchronized (entry) {
+                entry.bitmap.add(userId);
+            }
+            return entry;
+        });
+    }
+
+    /**
+     * Drop a poll's bitmap so it is reloaded on next use, e.g. when the poll is deleted
+     *
+     * @param pollId Poll ID
+     */
+    public void invalidate(int pollId) {
+        entries.remove(pollId);
+    }
+
+    /**
+     * Drop every bitmap
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return Number of polls whose voters are loaded
+     */
+    public int getLoadedPollCount() {
+        return entries.size();
+    }
+
+    /**
+     * @return Approximate memory used by all loaded bitmaps, in bytes
+     */
+    public long getMemoryBytes() {
+        long bytes = 0;
+        for (Entry entry : entries.values()) {
+            synchronized (entry) {
+                bytes += entry.bitmap.getMemoryBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Load a poll's voters, or wait for another thread loading them
+     *
+     * @return The loaded entry, or null if the voters could not be read
+     */
+    private Entry load(int pollId) {
+        // A null result leaves the poll unloaded, so the next check tries again
+        return entries.computeIfAbsent(pollId, id -> {
+            Entry entry = new Entry(System.nanoTime());
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement("SELECT id, user_id FROM votes WHERE poll_id = ?")) {
+                stmt.setInt(1, id);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    readVotes(rs, entry);
+                }
+            } catch (SQLException e) {
+                LOG.error("Error loading voters for poll " + id + ": " + e.getMessage());
+                return null;
+            }
+            return entry;
+        });
+    }
+
+    /**
+     * Read the poll's votes newer than the entry's watermark into its bitmap
+     *
+     * @return false if they could not be read
+     */
+    private boolean catchUp(Entry entry, int pollId, long lastVoteId) {
+        long checkedAt = System.nanoTime();
+        List<Integer> newVoters = new ArrayList<>();
+        long newLastVoteId = lastVoteId;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "SELECT id, user_id FROM votes WHERE poll_id = ? AND id > ?")) {
+            stmt.setInt(1, pollId);
+            stmt.setLong(2, lastVoteId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    newLastVoteId = Math.max(newLastVoteId, rs.getLong(1));
+                    newVoters.add(rs.getInt(2));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("Error refreshing voters for poll " + pollId + ": " + e.getMessage());
+            return false;
+        }
+        synchronized (entry) {
+            for (int userId : newVoters) {
+                entry.bitmap.add(userId);
+            }
+            entry.lastVoteId = Math.max(entry.lastVoteId, newLastVoteId);
+            entry.checkedAtNanos = Math.max(entry.checkedAtNanos, checkedAt);
+        }
+        return true;
+    }
+
+    private static void readVotes(ResultSet rs, Entry entry) throws SQLException {
+        while (rs.next()) {
+            entry.lastVoteId = Math.max(entry.lastVoteId, rs.getLong(1));
+            entry.bitmap.add(rs.getInt(2));
+        }
+    }
+
+    /**
+     * A poll's voters, with the highest vote ID read and when the database was last read
+     */
+    private static final class Entry {
+        private final VoterBitmap bitmap = new VoterBitmap();
+        private long lastVoteId;
+        private long checkedAtNanos;
+
+        private Entry(long checkedAtNanos) {
+            this.checkedAtNanos = checkedAtNanos;
+        }
+    }
+}
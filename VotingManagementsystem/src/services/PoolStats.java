@@ -0,0 +1,173 @@
+package services;
+
+/**
+ * Immutable snapshot of connection pool statistics
+ */
+public class PoolStats {
+    private final int totalConnections;
+    private final int idleConnections;
+    private final int activeConnections;
+    private final int waitingThreads;
+    private final long borrowCount;
+    private final long createdCount;
+    private final long destroyedCount;
+    private final long timeoutCount;
+    private final long validationFailures;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final long statementCacheEvictions;
+
+    /**
+     * Create a new PoolStats snapshot with all fields
+     */
+    public PoolStats(int totalConnections, int idleConnections, int activeConnections, int waitingThreads,
+                     long borrowCount, long createdCount, long destroyedCount, long timeoutCount,
+                     long validationFailures, long totalWaitNanos, long maxWaitNanos,
+                     long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+        this.totalConnections = totalConnections;
+        this.idleConnections = idleConnections;
+        this.activeConnections = activeConnections;
+        this.waitingThreads = waitingThreads;
+        this.borrowCount = borrowCount;
+        this.createdCount = createdCount;
+        this.destroyedCount = destroyedCount;
+        this.timeoutCount = timeoutCount;
+        this.validationFailures = validationFailures;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+        this.statementCacheEvictions = statementCacheEvictions;
+    }
+
+    /**
+     * @return Number of physical connections currently open (idle + active)
+     */
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    /**
+     * @return Number of connections sitting in the pool ready to be borrowed
+     */
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    /**
+     * @return Number of connections currently borrowed by callers
+     */
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    /**
+     * @return Number of threads currently blocked waiting for a connection
+     */
+    public int getWaitingThreads() {
+        return waitingThreads;
+    }
+
+    /**
+     * @return Total number of successful borrows since the pool was created
+     */
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    /**
+     * @return Total number of physical connections opened
+     */
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    /**
+     * @return Total number of physical connections closed (evicted, broken or invalid)
+     */
+    public long getDestroyedCount() {
+        return destroyedCount;
+    }
+
+    /**
+     * @return Number of borrow attempts that timed out
+     */
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    /**
+     * @return Number of idle connections that failed validation on borrow
+     */
+    public long getValidationFailures() {
+        return validationFailures;
+    }
+
+    /**
+     * @return Accumulated time callers spent waiting to borrow, in nanoseconds
+     */
+    public long getTotalWaitNanos() {
+        return totalWaitNanos;
+    }
+
+    /**
+     * @return Longest single wait to borrow a connection, in nanoseconds
+     */
+    public long getMaxWaitNanos() {
+        return maxWaitNanos;
+    }
+
+    /**
+     * @return Average time spent waiting to borrow, in milliseconds
+     */
+    public double getAverageWaitMillis() {
+        return borrowCount > 0 ? totalWaitNanos / (double) borrowCount / 1_000_000.0 : 0.0;
+    }
+
+    /**
+     * @return Number of prepareStatement calls served by a cached statement
+     */
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    /**
+     * @return Number of prepareStatement calls that had to prepare a new statement
+     */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    /**
+     * @return Number of cached statements closed to make room for others
+     */
+    public long getStatementCacheEvictions() {
+        return statementCacheEvictions;
+    }
+
+    /**
+     * @return Fraction of prepareStatement calls served from the statement cache
+     */
+    public double getStatementCacheHitRate() {
+        long lookups = statementCacheHits + statementCacheMisses;
+        return lookups > 0 ? statementCacheHits / (double) lookups : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats[total=" + totalConnections +
+               ", idle=" + idleConnections +
+               ", active=" + activeConnections +
+               ", waiting=" + waitingThreads +
+               ", borrowed=" + borrowCount +
+               ", created=" + createdCount +
+               ", destroyed=" + destroyedCount +
+               ", timeouts=" + timeoutCount +
+               ", validationFailures=" + validationFailures +
+               String.format(", avgWait=%.3fms, maxWait=%.3fms, stmtCacheHitRate=%.1f%%, stmtCacheEvictions=%d]",
+                             getAverageWaitMillis(), maxWaitNanos / 1_000_000.0,
+                             getStatementCacheHitRate() * 100, statementCacheEvictions);
+    }
+}
@@ -0,0 +1,234 @@
+package services;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prepared statements of one pooled connection, keyed by SQL text.
+ * prepareStatement(sql) reuses the statement already prepared for the same SQL, so
+ * the driver (or the server, with server-side prepare enabled) does not parse and plan
+ * it again. Closing a statement handed out by the cache closes its result sets and
+ * returns it to the cache. The least recently used statement is closed once the cache
+ * is full.
+ *
+ * Like the connection it belongs to, a cache is only used by one borrower at a time.
+ */
+class StatementCache {
+
+    private final Connection physical;
+    private final LinkedHashMap<String, Entry> entries;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private volatile boolean connectionFailed = false;
+
+    /**
+     * @param physical Connection the statements are prepared on
+     * @param capacity Maximum number of cached statements
+     * @param hits Counter shared by the pool for cache hits
+     * @param misses Counter shared by the pool for cache misses
+     * @param evictions Counter shared by the pool for evicted statements
+     */
+    StatementCache(Connection physical, int capacity, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        this.physical = physical;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= capacity) {
+                    return false;
+                }
+                StatementCache.this.evictions.increment();
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Get a prepared statement for the SQL, reusing a cached one when it is free
+     *
+     * @param sql SQL text
+     * @return Statement whose close() returns it to the cache
+     * @throws SQLException If the statement cannot be prepared
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        Entry entry = entries.get(sql);
+        if (entry != null && !entry.inUse) {
+            hits.increment();
+            return entry.checkOut();
+        }
+
+        misses.increment();
+        PreparedStatement statement = physical.prepareStatement(sql);
+        if (entry != null) {
+            // Same SQL is already open on this connection; hand out a one-off statement
+            return statement;
+        }
+        entry = new Entry(sql, statement);
+        entries.put(sql, entry);
+        return entry.checkOut();
+    }
+
+    /**
+     * @return true if a statement reported that the connection itself failed
+     */
+    boolean hasConnectionFailed() {
+        return connectionFailed;
+    }
+
+    /**
+     * Close every cached statement
+     */
+    void clear() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            iterator.next().evict();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * A cached physical statement
+     */
+    private final class Entry {
+        private final String sql;
+        private final PreparedStatement statement;
+        private boolean inUse = false;
+        private boolean evicted = false;
+
+        private Entry(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+
+        private PreparedStatement checkOut() {
+            inUse = true;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                new CheckedOutStatement(this));
+        }
+
+        /**
+         * Return the statement to the cache, or close it if it was evicted or cannot be reset
+         */
+        private void checkIn() {
+            inUse = false;
+            if (evicted) {
+                closeQuietly();
+                return;
+            }
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.clearWarnings();
+            } catch (SQLException e) {
+                entries.remove(sql, this);
+                closeQuietly();
+            }
+        }
+
+        /**
+         * Drop the statement from the cache; an in-use statement is closed when checked in
+         */
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                // Statement is being discarded anyway
+            }
+        }
+    }
+
+    /**
+     * Borrower's view of a cached statement, valid until it is closed
+     */
+    private final class CheckedOutStatement implements InvocationHandler {
+        private final Entry entry;
+        private final List<ResultSet> resultSets = new ArrayList<>(1);
+        private boolean closed = false;
+
+        private CheckedOutStatement(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached" + entry.statement;
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+
+            try {
+                Object result = method.invoke(entry.statement, args);
+                if (result instanceof ResultSet) {
+                    resultSets.add((ResultSet) result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException) {
+                    String state = ((SQLException) cause).getSQLState();
+                    // SQLState class 08 means the connection itself failed
+                    if (state != null && state.startsWith("08")) {
+                        connectionFailed = true;
+                    }
+                }
+                throw cause;
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (ResultSet resultSet : resultSets) {
+                try {
+                    resultSet.close();
+                } catch (SQLException e) {
+                    // Result set may already be closed by the borrower
+                }
+            }
+            resultSets.clear();
+            entry.checkIn();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package services;
+
+import logging.Log;
+import logging.Logger;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional in-process vote tallies.
+ * Seeded with a single GROUP BY over the votes table, then kept current by the vote
+ * write path after each commit, so result views read counts from memory instead of
+ * querying per render. A background task periodically reloads the counts from the
+ * database to correct any drift (votes written by other processes, deleted polls).
+ *
+ * Disabled unless started; enable with -Dvoting.tally.engine=true. Readers only see the
+ * engine once its first load has succeeded, and fall back to the database until then.
+ */
+public class TallyEngine {
+    private static final Logger LOG = Log.getLogger(TallyEngine.class);
+
+    // Each poll has two candidates (1 and 2); slot 0 holds the poll total
+    private static final int SLOTS_PER_POLL = 3;
+
+    private static volatile TallyEngine instance = null;
+
+    private volatile Map<Integer, LongAdder[]> tallies = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService reconciler;
+
+    // Set once the counts have been loaded from the database
+    private volatile boolean ready = false;
+
+    // Votes counted while a reconcile is loading, added to the loaded counts before they
+    // are swapped in; null when no reconcile is running. Guarded by this for writes
+    private volatile Map<Integer, LongAdder[]> pending = null;
+
+    // Only one reconcile loads at a time, so they never share the pending map
+    private final Object reconcileLock = new Object();
+
+    private TallyEngine(long reconcileIntervalMillis) {
+        if (!reconcile()) {
+            LOG.warn("Tally engine could not load counts; retrying in " + reconcileIntervalMillis + " ms");
+        }
+        this.reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "tally-engine-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.reconciler.scheduleWithFixedDelay(this::reconcile, reconcileIntervalMillis,
+                                               reconcileIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Start the shared engine if it is not already running
+     *
+     * @param reconcileIntervalMillis How often counts are reloaded from the database
+     * @return The running engine
+     */
+    public static synchronized TallyEngine start(long reconcileIntervalMillis) {
+        if (instance == null) {
+            instance = new TallyEngine(reconcileIntervalMillis);
+            LOG.info("Tally engine started (reconcile every " + reconcileIntervalMillis + " ms)");
+        }
+        return instance;
+    }
+
+    /**
+     * Start the shared engine when -Dvoting.tally.engine=true is set.
+     * The reconcile interval can be set with -Dvoting.tally.reconcileMillis (default 60000).
+     *
+     * @return The running engine, or null if it is disabled
+     */
+    public static TallyEngine startIfEnabled() {
+        if (!Boolean.getBoolean("voting.tally.engine")) {
+            return null;
+        }
+        return start(Long.getLong("voting.tally.reconcileMillis", 60 * 1000));
+    }
+
+    /**
+     * @return The running engine, or null if it has not been started or has not loaded its counts yet
+     */
+    public static TallyEngine getInstance() {
+        TallyEngine current = instance;
+        return current != null && current.ready ? current : null;
+    }
+
+    /**
+     * Stop the shared engine; readers fall back to the database
+     */
+    public static synchronized void stop() {
+        if (instance != null) {
+            instance.reconciler.shutdownNow();
+            instance = null;
+        }
+    }
+
+    /**
+     * Count a vote that has been committed
+     *
+     * @param pollId Poll ID
+     * @param candidateId Candidate ID (1 or 2)
+     */
+    public void recordVote(int pollId, int candidateId) {
+        if (candidateId <= 0 || candidateId >= SLOTS_PER_POLL) {
+            return;
+        }
+        if (pending != null) {
+            synchronized (this) {
+                Map<Integer, LongAdder[]> reloading = pending;
+                if (reloading != null) {
+                    increment(reloading, pollId, candidateId);
+                }
+                increment(tallies, pollId, candidateId);
+            }
+            return;
+        }
+        increment(tallies, pollId, candidateId);
+    }
+
+    private static void increment(Map<Integer, LongAdder[]> counts, int pollId, int candidateId) {
+        LongAdder[] counters = counts.computeIfAbsent(pollId, id -> newCounters());
+        counters[0].increment();
+        counters[candidateId].increment();
+    }
+
+    /**
+     * Forget a deleted poll
+     *
+     * @param pollId Poll ID
+     */
+    public void removePoll(int pollId) {
+        tallies.remove(pollId);
+    }
+
+    /**
+     * @param pollId Poll ID
+     * @param candidateId Candidate ID (1 or 2)
+     * @return Number of votes for the candidate
+     */
+    public int getCount(int pollId, int candidateId) {
+        if (candidateId <= 0 || candidateId >= SLOTS_PER_POLL) {
+            return 0;
+        }
+        LongAdder[] counters = tallies.get(pollId);
+        return counters != null ? counters[candidateId].intValue() : 0;
+    }
+
+    /**
+     * @param pollId Poll ID
+     * @return Number of votes cast in the poll
+     */
+    public int getPollTotal(int pollId) {
+        LongAdder[] counters = tallies.get(pollId);
+        return counters != null ? counters[0].intValue() : 0;
+    }
+
+    /**
+     * @return Number of votes cast across all polls
+     */
+    public int getTotalVotes() {
+        long total = 0;
+        for (LongAdder[] counters : tallies.values()) {
+            total += counters[0].sum();
+        }
+        return (int) total;
+    }
+
+    /**
+     * Reload every poll's counts from the votes table with one GROUP BY and swap them in.
+     * Votes counted while the query runs are added to the loaded counts, so none are lost.
+     *
+     * @return true if the counts were reloaded
+     */
+    public boolean reconcile() {
+        synchronized (reconcileLock) {
+            synchronized (this) {
+                pending = new ConcurrentHashMap<>();
+            }
+            try {
+                return load();
+            } finally {
+                synchronized (this) {
+                    pending = null;
+                }
+            }
+        }
+    }
+
+    private boolean load() {
+        Map<Integer, LongAdder[]> loaded = new ConcurrentHashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT poll_id, candidate_id, COUNT(*) FROM votes GROUP BY poll_id, candidate_id")) {
+            while (rs.next()) {
+                int candidateId = rs.getInt(2);
+                if (candidateId <= 0 || candidateId >= SLOTS_PER_POLL) {
+                    continue;
+                }
+                LongAdder[] counters = loaded.computeIfAbsent(rs.getInt(1), id -> newCounters());
+                counters[0].add(rs.getLong(3));
+                counters[candidateId].add(rs.getLong(3));
+            }
+        } catch (SQLException e) {
+            LOG.error("Error reconciling vote tallies: " + e.getMessage(), e);
+            return false;
+        }
+
+        int drifted = 0;
+        Map<Integer, LongAdder[]> previous;
+        synchronized (this) {
+            for (Map.Entry<Integer, LongAdder[]> entry : pending.entrySet()) {
+                LongAdder[] counters = loaded.computeIfAbsent(entry.getKey(), id -> newCounters());
+                for (int i = 0; i < SLOTS_PER_POLL; i++) {
+                    counters[i].add(entry.getValue()[i].sum());
+                }
+            }
+            previous = tallies;
+            tallies = loaded;
+            pending = null;
+        }
+        for (Map.Entry<Integer, LongAdder[]> entry : loaded.entrySet()) {
+            LongAdder[] old = previous.get(entry.getKey());
+            if (old == null || old[0].sum() != entry.getValue()[0].sum()) {
+                drifted++;
+            }
+        }
+        ready = true;
+        if (drifted > 0 && !previous.isEmpty()) {
+            LOG.info("Tally engine corrected counts for " + drifted + " poll(s)");
+        }
+        return true;
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[SLOTS_PER_POLL];
+        for (int i = 0; i < SLOTS_PER_POLL; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+}
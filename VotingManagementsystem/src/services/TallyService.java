@@ -0,0 +1,46 @@
+package services;
+
+import models.Vote;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Service interface for maintaining poll vote tallies
+ */
+public interface TallyService {
+    /**
+     * Count a single vote, inside the caller's transaction
+     * 
+     * @param conn Connection with the open vote transaction
+     * @param pollId Poll ID
+     * @param candidateId Candidate ID (1 or 2)
+     * @throws SQLException If the tallies could not be updated
+     */
+    void recordVote(Connection conn, int pollId, int candidateId) throws SQLException;
+    
+    /**
+     * Count a batch of votes, inside the caller's transaction.
+     * Issues one update per poll and one per candidate, however many votes there are.
+     * 
+     * @param conn Connection with the open vote transaction
+     * @param votes Votes that were inserted in this transaction
+     * @throws SQLException If the tallies could not be updated
+     */
+    void recordVotes(Connection conn, List<Vote> votes) throws SQLException;
+    
+    /**
+     * Recompute a poll's tallies from the votes table, in case the counters drifted
+     * 
+     * @param pollId Poll ID
+     * @return true if successful
+     */
+    boolean recount(int pollId);
+    
+    /**
+     * Recompute the tallies of every poll from the votes table
+     * 
+     * @return true if successful
+     */
+    boolean recountAll();
+}
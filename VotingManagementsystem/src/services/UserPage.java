@@ -0,0 +1,83 @@
+package services;
+
+import models.User;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of users returned by UserService.searchUsers
+ */
+public class UserPage {
+    private final List<User> users;
+    private final Key nextKey;
+
+    /**
+     * Create a new UserPage with all fields
+     */
+    public UserPage(List<User> users, Key nextKey) {
+        this.users = Collections.unmodifiableList(users);
+        this.nextKey = nextKey;
+    }
+
+    /**
+     * @return Users on this page, in search order
+     */
+    public List<User> getUsers() {
+        return users;
+    }
+
+    /**
+     * @return Key to pass as afterKey for the next page, or null if this is the last page
+     */
+    public Key getNextKey() {
+        return nextKey;
+    }
+
+    public boolean hasMore() {
+        return nextKey != null;
+    }
+
+    /**
+     * Position after the last user of a page. A search lists name matches in name order,
+     * then the remaining email matches in email order, and the key holds the index values
+     * of the last user in whichever part it came from, so the next page is found with an
+     * index seek. Callers only pass it back with the same query.
+     */
+    public static final class Key {
+        /**
+         * Which index the search is walking
+         */
+        enum Phase {
+            ID,
+            NAME,
+            EMAIL
+        }
+
+        private final Phase phase;
+        private final int id;
+        private final String value;
+
+        Key(Phase phase, int id, String value) {
+            this.phase = phase;
+            this.id = id;
+            this.value = value;
+        }
+
+        Phase getPhase() {
+            return phase;
+        }
+
+        int getId() {
+            return id;
+        }
+
+        String getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return phase + ":" + value + "/" + id;
+        }
+    }
+}
@@ -5,6 +5,19 @@ import models.User;
 
 public interface UserService {
     ObservableList<User> getAllUsers();
+
+    /**
+     * Find users whose name or email starts with a query: name matches in name order,
+     * then the other email matches in email order. An empty query lists every user in
+     * ID order. Pass the previous page's key to get the next page
+     *
+     * @param query Start of the name or email, compared by the column collation (case-insensitive
+     *              by default); empty matches every user
+     * @param afterKey Key from the previous page, or null for the first page
+     * @param limit Most users to return
+     * @return The page, empty if the users could not be loaded
+     */
+    UserPage searchUsers(String query, UserPage.Key afterKey, int limit);
     int addUser(User user);
     boolean updateUser(User user);
     boolean deleteUser(int userId);
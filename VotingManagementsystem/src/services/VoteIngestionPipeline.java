@@ -0,0 +1,312 @@
+package services;
+
+import logging.Log;
+import logging.Logger;
+import models.Vote;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Group-commit vote writer.
+ * Votes are queued and a single writer thread drains them in batches: one JDBC batch
+ * INSERT into votes (only for active polls), one tally update per poll and candidate,
+ * and one commit per batch.
+ * Each caller's future completes once the batch containing its vote is committed.
+ *
+ * The batch relies on per-row update counts to tell accepted votes from duplicates,
+ * so the JDBC URL must not enable rewriteBatchedStatements.
+ */
+public class VoteIngestionPipeline {
+    private static final Logger LOG = Log.getLogger(VoteIngestionPipeline.class);
+
+    private final int batchSize;
+    private final long maxLingerNanos;
+    private final BlockingQueue<PendingVote> queue;
+    private final TallyService tallyService;
+    private final Consumer<Vote> onAccepted;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    /**
+     * Create and start a new pipeline
+     *
+     * @param batchSize Maximum number of votes written per transaction
+     * @param maxLingerMillis How long the writer waits for a batch to fill up before writing it
+     * @param queueCapacity Maximum number of votes waiting to be written
+     * @param tallyService Tally service updated inside each batch transaction
+     * @param onAccepted Called on the writer thread for every vote that was committed
+     */
+    public VoteIngestionPipeline(int batchSize, long maxLingerMillis, int queueCapacity,
+                                 TallyService tallyService, Consumer<Vote> onAccepted) {
+        if (batchSize <= 0 || maxLingerMillis < 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Invalid pipeline settings: batchSize=" + batchSize +
+                                               ", maxLingerMillis=" + maxLingerMillis +
+                                               ", queueCapacity=" + queueCapacity);
+        }
+        this.batchSize = batchSize;
+        this.maxLingerNanos = TimeUnit.MILLISECONDS.toNanos(maxLingerMillis);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.tallyService = tallyService;
+        this.onAccepted = onAccepted;
+
+        this.writer = new Thread(this::runWriter, "vote-ingestion-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queue a vote for the next batch
+     *
+     * @param vote Vote to cast
+     * @return Future completed with the outcome once the vote's batch has been committed
+     */
+    public CompletableFuture<VoteResult> submit(Vote vote) {
+        PendingVote pending = new PendingVote(vote);
+        if (!running) {
+            pending.result.complete(VoteResult.ERROR);
+            return pending.result;
+        }
+        try {
+            // Apply back-pressure when the writer falls behind, but never block forever
+            if (!queue.offer(pending, 1, TimeUnit.SECONDS)) {
+                LOG.error("Vote ingestion queue is full, rejecting vote for poll " + vote.getPollId());
+                pending.result.complete(VoteResult.ERROR);
+            } else if (!running && queue.remove(pending)) {
+                // Shut down while we were queueing, so the writer may already have made its
+                // last pass; if it had taken the vote, it completes the future itself
+                pending.result.complete(VoteResult.ERROR);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.result.complete(VoteResult.ERROR);
+        }
+        return pending.result;
+    }
+
+    /**
+     * Stop accepting votes, write everything already queued and stop the writer thread.
+     * Votes still queued if the writer has not finished within 10 seconds are failed.
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            // The batch being written still completes; nobody should wait on the rest
+            int failed = failQueued();
+            LOG.warn("Vote ingestion writer did not stop in time; failed " + failed + " queued vote(s)");
+        }
+    }
+
+    /**
+     * @return Number of votes waiting to be written
+     */
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    private void runWriter() {
+        List<PendingVote> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingVote first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - batch.size());
+
+                // Linger briefly so concurrent voters can share the commit
+                long deadline = System.nanoTime() + maxLingerNanos;
+                while (batch.size() < batchSize && running) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingVote next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                running = false;
+                completeAll(batch, VoteResult.ERROR);
+                break;
+            } catch (RuntimeException e) {
+                LOG.warn("Unexpected error in vote ingestion writer: " + e.getMessage(), e);
+                completeAll(batch, VoteResult.ERROR);
+            } finally {
+                batch.clear();
+            }
+        }
+        int failed = failQueued();
+        if (failed > 0) {
+            LOG.warn("Vote ingestion writer stopped with " + failed + " vote(s) unwritten");
+        }
+    }
+
+    /**
+     * Fail every vote still in the queue
+     *
+     * @return Number of votes failed
+     */
+    private int failQueued() {
+        List<PendingVote> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        completeAll(leftover, VoteResult.ERROR);
+        return leftover.size();
+    }
+
+    /**
+     * Write a batch in one transaction. If the batch as a whole fails, each vote is retried
+     * on its own so that one bad vote does not fail the others.
+     */
+    private void writeBatch(List<PendingVote> batch) {
+        try {
+            VoteResult[] results = insertBatch(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                PendingVote pending = batch.get(i);
+                if (results[i] == VoteResult.ACCEPTED && onAccepted != null) {
+                    // The vote is committed, so a failing callback must not change its outcome
+                    try {
+                        onAccepted.accept(pending.vote);
+                    } catch (RuntimeException e) {
+                        LOG.error("Error updating caches for an accepted vote: " + e.getMessage(), e);
+                    }
+                }
+                pending.result.complete(results[i]);
+            }
+        } catch (SQLException e) {
+            if (batch.size() == 1) {
+                LOG.error("Error writing vote: " + e.getMessage());
+                batch.get(0).result.complete(VoteResult.ERROR);
+                return;
+            }
+            LOG.error("Error writing vote batch of " + batch.size() + ", retrying individually: " + e.getMessage());
+            for (PendingVote pending : batch) {
+                List<PendingVote> single = new ArrayList<>(1);
+                single.add(pending);
+                writeBatch(single);
+            }
+        }
+    }
+
+    /**
+     * Insert the batch and update the poll tallies, committing once
+     *
+     * @return Per-vote outcome
+     */
+    private VoteResult[] insertBatch(List<PendingVote> batch) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int[] insertCounts;
+                try (PreparedStatement insertStmt = conn.prepareStatement(
+                        "INSERT INTO votes (poll_id, user_id, candidate_id) " +
+                        "SELECT id, ?, ? FROM polls WHERE id = ? AND status = 'Active' " +
+                        "ON DUPLICATE KEY UPDATE id = id")) {
+                    for (PendingVote pending : batch) {
+                        insertStmt.setInt(1, pending.vote.getUserId());
+                        insertStmt.setInt(2, pending.vote.getCandidateId());
+                        insertStmt.setInt(3, pending.vote.getPollId());
+                        insertStmt.addBatch();
+                    }
+                    insertCounts = insertStmt.executeBatch();
+                }
+
+                // One tally update per poll and candidate in the batch
+                List<Vote> accepted = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    if (insertCounts[i] > 0) {
+                        accepted.add(batch.get(i).vote);
+                    }
+                }
+                tallyService.recordVotes(conn, accepted);
+
+                VoteResult[] results = classify(conn, batch, insertCounts);
+                conn.commit();
+                return results;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Turn insert counts into outcomes. A vote that inserted nothing was for a poll that
+     * is not active or a duplicate; only those votes are looked up. Any other failure
+     * fails the batch, so its votes are retried on their own.
+     */
+    private VoteResult[] classify(Connection conn, List<PendingVote> batch, int[] insertCounts) throws SQLException {
+        VoteResult[] results = new VoteResult[batch.size()];
+        Map<Integer, Boolean> pollActive = new HashMap<>();
+        try (PreparedStatement statusStmt = conn.prepareStatement("SELECT status FROM polls WHERE id = ?");
+             PreparedStatement existsStmt = conn.prepareStatement(
+                 "SELECT 1 FROM votes WHERE user_id = ? AND poll_id = ? LIMIT 1")) {
+            for (int i = 0; i < batch.size(); i++) {
+                if (insertCounts[i] > 0) {
+                    results[i] = VoteResult.ACCEPTED;
+                    continue;
+                }
+                int pollId = batch.get(i).vote.getPollId();
+                Boolean active = pollActive.get(pollId);
+                if (active == null) {
+                    statusStmt.setInt(1, pollId);
+                    try (ResultSet rs = statusStmt.executeQuery()) {
+                        active = rs.next() && "Active".equals(rs.getString("status"));
+                    }
+                    pollActive.put(pollId, active);
+                }
+                if (!active) {
+                    results[i] = VoteResult.POLL_CLOSED;
+                    continue;
+                }
+                existsStmt.setInt(1, batch.get(i).vote.getUserId());
+                existsStmt.setInt(2, pollId);
+                try (ResultSet rs = existsStmt.executeQuery()) {
+                    results[i] = rs.next() ? VoteResult.DUPLICATE : VoteResult.ERROR;
+                }
+            }
+        }
+        return results;
+    }
+
+    private void completeAll(List<PendingVote> batch, VoteResult result) {
+        for (PendingVote pending : batch) {
+            pending.result.complete(result);
+        }
+    }
+
+    /**
+     * A queued vote and the future its caller is waiting on
+     */
+    private static final class PendingVote {
+        private final Vote vote;
+        private final CompletableFuture<VoteResult> result = new CompletableFuture<>();
+
+        private PendingVote(Vote vote) {
+            this.vote = vote;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package services;
+
+/**
+ * Outcome of an attempt to cast a vote
+ */
+public enum VoteResult {
+    /** The vote was recorded */
+    ACCEPTED,
+    /** The user had already voted in this poll, nothing was recorded */
+    DUPLICATE,
+    /** The poll is not active (completed or missing), nothing was recorded */
+    POLL_CLOSED,
+    /** The vote could not be recorded because of a database error */
+    ERROR
+}
@@ -1,7 +1,13 @@
 package services;
 
+import models.RecentVote;
 import models.Vote;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service interface for Vote operations
@@ -11,9 +17,17 @@ public interface VoteService {
      * Cast a vote for a specific poll and candidate
      * 
      * @param vote Vote to cast
-     * @return true if successful
+     * @return Outcome of the attempt
      */
-    boolean castVote(Vote vote);
+    VoteResult castVote(Vote vote);
+    
+    /**
+     * Cast a vote through the batched ingestion pipeline
+     * 
+     * @param vote Vote to cast
+     * @return Future completed with the outcome once the vote has been committed
+     */
+    CompletableFuture<VoteResult> castVoteAsync(Vote vote);
     
     /**
      * Check if a user has already voted in a poll
@@ -24,6 +38,24 @@ public interface VoteService {
      */
     boolean hasUserVoted(int userId, int pollId);
     
+    /**
+     * Check which of the given polls a user has voted in, with one query
+     * 
+     * @param userId User ID
+     * @param pollIds Poll IDs to check
+     * @return IDs of the polls the user has voted in
+     */
+    Set<Integer> getVotedPollIds(int userId, Collection<Integer> pollIds);
+    
+    /**
+     * Check which of the given polls a user has voted in, as a bitset indexed by poll ID
+     * 
+     * @param userId User ID
+     * @param pollIds Poll IDs to check
+     * @return Bitset with the bit for each voted poll ID set
+     */
+    BitSet getVotedPollBits(int userId, Collection<Integer> pollIds);
+    
     /**
      * Get votes for a specific poll
      * 
@@ -41,6 +73,15 @@ public interface VoteService {
      */
     int getVoteCountForCandidate(int pollId, int candidateId);
     
+    /**
+     * Get per-candidate vote counts for many polls at once
+     * 
+     * @param pollIds Poll IDs
+     * @return Map from poll ID to counts, where counts[0] is candidate 1 and counts[1] is candidate 2;
+     *         every requested poll has an entry
+     */
+    Map<Integer, int[]> getResults(Collection<Integer> pollIds);
+    
     /**
      * Get all polls that the user has voted in
      * 
@@ -49,6 +90,15 @@ public interface VoteService {
      */
     List<Integer> getPollsVotedByUser(int userId);
     
+    /**
+     * Get the user's most recent votes, newest first, with the polls they were cast in
+     * 
+     * @param userId User ID
+     * @param limit Maximum number of votes to return
+     * @return List of recent votes
+     */
+    List<RecentVote> getRecentVotes(int userId, int limit);
+    
     /**
      * Get user's vote for a specific poll
      * 
@@ -0,0 +1,143 @@
+package services;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of user IDs, organised like a Roaring bitmap.
+ * IDs are split into a 16-bit high part that selects a container and a 16-bit low
+ * part stored in it. Sparse containers are sorted char arrays; once a container holds
+ * more than 4096 values it switches to a 65536-bit bitmap, which is smaller from that
+ * point on. Lookups are a binary search over the container keys plus one array probe.
+ *
+ * Not thread-safe; PollVoterIndex guards each bitmap.
+ */
+public class VoterBitmap {
+
+    // An array container larger than this would use more memory than a bitmap container
+    private static final int ARRAY_CONTAINER_MAX = 4096;
+    private static final int BITMAP_WORDS = 65536 / 64;
+
+    private char[] keys = new char[0];
+    private Object[] containers = new Object[0];
+    private int[] cardinalities = new int[0];
+    private int size;
+
+    /**
+     * @param userId User ID
+     * @return true if the ID is in the set
+     */
+    public boolean contains(int userId) {
+        int index = Arrays.binarySearch(keys, high(userId));
+        if (index < 0) {
+            return false;
+        }
+        Object container = containers[index];
+        char low = low(userId);
+        if (container instanceof long[]) {
+            long[] bits = (long[]) container;
+            return (bits[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) container, 0, cardinalities[index], low) >= 0;
+    }
+
+    /**
+     * Add an ID to the set
+     *
+     * @param userId User ID
+     * @return true if the ID was not already present
+     */
+    public boolean add(int userId) {
+        char high = high(userId);
+        int index = Arrays.binarySearch(keys, high);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, high);
+        }
+
+        Object container = containers[index];
+        char low = low(userId);
+        if (container instanceof long[]) {
+            long[] bits = (long[]) container;
+            long mask = 1L << low;
+            if ((bits[low >>> 6] & mask) != 0) {
+                return false;
+            }
+            bits[low >>> 6] |= mask;
+        } else {
+            char[] values = (char[]) container;
+            int cardinality = cardinalities[index];
+            int position = Arrays.binarySearch(values, 0, cardinality, low);
+            if (position >= 0) {
+                return false;
+            }
+            position = -position - 1;
+            if (cardinality == ARRAY_CONTAINER_MAX) {
+                long[] bits = toBitmap(values, cardinality);
+                bits[low >>> 6] |= 1L << low;
+                containers[index] = bits;
+            } else {
+                if (cardinality == values.length) {
+                    values = Arrays.copyOf(values, Math.min(ARRAY_CONTAINER_MAX, Math.max(4, cardinality * 2)));
+                    containers[index] = values;
+                }
+                System.arraycopy(values, position, values, position + 1, cardinality - position);
+                values[position] = low;
+            }
+        }
+        cardinalities[index]++;
+        size++;
+        return true;
+    }
+
+    /**
+     * @return Number of IDs in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Approximate memory used by the containers, in bytes
+     */
+    public long getMemoryBytes() {
+        long bytes = keys.length * 2L + cardinalities.length * 4L;
+        for (Object container : containers) {
+            bytes += container instanceof long[] ? BITMAP_WORDS * 8L : ((char[]) container).length * 2L;
+        }
+        return bytes;
+    }
+
+    private void insertContainer(int index, char high) {
+        int count = keys.length;
+        char[] newKeys = new char[count + 1];
+        Object[] newContainers = new Object[count + 1];
+        int[] newCardinalities = new int[count + 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(containers, 0, newContainers, 0, index);
+        System.arraycopy(cardinalities, 0, newCardinalities, 0, index);
+        System.arraycopy(keys, index, newKeys, index + 1, count - index);
+        System.arraycopy(containers, index, newContainers, index + 1, count - index);
+        System.arraycopy(cardinalities, index, newCardinalities, index + 1, count - index);
+        newKeys[index] = high;
+        newContainers[index] = new char[4];
+        keys = newKeys;
+        containers = newContainers;
+        cardinalities = newCardinalities;
+    }
+
+    private static long[] toBitmap(char[] values, int cardinality) {
+        long[] bits = new long[BITMAP_WORDS];
+        for (int i = 0; i < cardinality; i++) {
+            bits[values[i] >>> 6] |= 1L << values[i];
+        }
+        return bits;
+    }
+
+    private static char high(int userId) {
+        return (char) (userId >>> 16);
+    }
+
+    private static char low(int userId) {
+        return (char) userId;
+    }
+}
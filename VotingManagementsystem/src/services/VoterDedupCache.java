@@ -0,0 +1,284 @@
+package services;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded set of (user, poll) pairs known to have voted.
+ * Keys are packed into a long (userId << 32 | pollId) and stored in lock-striped
+ * open-addressing tables, so lookups allocate nothing. Each stripe has a fixed number
+ * of slots derived from the memory cap; once a stripe is full, entries are evicted
+ * with the CLOCK (second chance) policy. An evicted entry only costs a database check
+ * the next time it is looked up.
+ */
+public class VoterDedupCache {
+
+    private static final int STRIPE_COUNT = 16;
+    private static final int MIN_SLOTS_PER_STRIPE = 16;
+    // 8 bytes for the key plus 1 byte for the CLOCK reference bit
+    private static final int BYTES_PER_SLOT = 9;
+    // 0 never occurs as a key because user and poll IDs are positive
+    private static final long EMPTY = 0L;
+
+    private final Stripe[] stripes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Create a new cache
+     *
+     * @param maxBytes Approximate upper bound on the memory used by the tables
+     */
+    public VoterDedupCache(long maxBytes) {
+        long slotsPerStripe = Math.max(MIN_SLOTS_PER_STRIPE, maxBytes / STRIPE_COUNT / BYTES_PER_SLOT);
+        int slots = Integer.highestOneBit((int) Math.min(slotsPerStripe, 1 << 30));
+        this.stripes = new Stripe[STRIPE_COUNT];
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe(slots);
+        }
+    }
+
+    /**
+     * Check whether a user is known to have voted in a poll
+     *
+     * @param userId User ID
+     * @param pollId Poll ID
+     * @return true if cached; false means unknown, not "has not voted"
+     */
+    public boolean contains(int userId, int pollId) {
+        if (userId <= 0 || pollId <= 0) {
+            return false;
+        }
+        long key = pack(userId, pollId);
+        long hash = mix(key);
+        boolean found = stripeFor(hash).contains(key, (int) hash);
+        if (found) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return found;
+    }
+
+    /**
+     * Remember that a user has voted in a poll
+     *
+     * @param userId User ID
+     * @param pollId Poll ID
+     */
+    public void add(int userId, int pollId) {
+        if (userId <= 0 || pollId <= 0) {
+            return;
+        }
+        long key = pack(userId, pollId);
+        long hash = mix(key);
+        if (stripeFor(hash).add(key, (int) hash)) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Remove every entry
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    /**
+     * @return Number of cached entries
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return Maximum number of entries held before eviction starts
+     */
+    public int getCapacity() {
+        return stripes[0].maxEntries * STRIPE_COUNT;
+    }
+
+    /**
+     * @return Memory used by the tables, in bytes
+     */
+    public long getMemoryBytes() {
+        return (long) stripes[0].keys.length * STRIPE_COUNT * BYTES_PER_SLOT;
+    }
+
+    /**
+     * @return Number of lookups that found the entry
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of lookups that did not find the entry
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Number of entries evicted to stay within the memory cap
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "VoterDedupCache[size=" + size() + "/" + getCapacity() +
+               ", hits=" + getHitCount() +
+               ", misses=" + getMissCount() +
+               ", evictions=" + getEvictionCount() + "]";
+    }
+
+    private Stripe stripeFor(long hash) {
+        return stripes[(int) (hash >>> 60) & (STRIPE_COUNT - 1)];
+    }
+
+    private static long pack(int userId, int pollId) {
+        return ((long) userId << 32) | (pollId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 64-bit finalizer from MurmurHash3, spreads sequential IDs across slots
+     */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * One linear-probing table guarded by its own lock
+     */
+    private static final class Stripe {
+        private final long[] keys;
+        private final boolean[] referenced;
+        private final int mask;
+        private final int maxEntries;
+        private int size;
+        private int clockHand;
+
+        private Stripe(int slots) {
+            this.keys = new long[slots];
+            this.referenced = new boolean[slots];
+            this.mask = slots - 1;
+            // Keep the load factor at 3/4 so probe sequences stay short
+            this.maxEntries = slots - (slots >>> 2);
+        }
+
+        private synchronized boolean contains(long key, int hash) {
+            int slot = find(key, hash);
+            if (slot < 0) {
+                return false;
+            }
+            referenced[slot] = true;
+            return true;
+        }
+
+        /**
+         * @return true if an entry had to be evicted to make room
+         */
+        private synchronized boolean add(long key, int hash) {
+            if (find(key, hash) >= 0) {
+                return false;
+            }
+            boolean evicted = false;
+            if (size >= maxEntries) {
+                evictOne();
+                evicted = true;
+            }
+            int slot = hash & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            referenced[slot] = true;
+            size++;
+            return evicted;
+        }
+
+        private synchronized void clear() {
+            Arrays.fill(keys, EMPTY);
+            Arrays.fill(referenced, false);
+            size = 0;
+            clockHand = 0;
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private int find(long key, int hash) {
+            int slot = hash & mask;
+            while (true) {
+                long current = keys[slot];
+                if (current == key) {
+                    return slot;
+                }
+                if (current == EMPTY) {
+                    return -1;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        /**
+         * CLOCK: sweep the slots, giving referenced entries a second chance,
+         * and remove the first entry that has not been used since the last sweep
+         */
+        private void evictOne() {
+            while (true) {
+                int slot = clockHand;
+                clockHand = (clockHand + 1) & mask;
+                if (keys[slot] == EMPTY) {
+                    continue;
+                }
+                if (referenced[slot]) {
+                    referenced[slot] = false;
+                } else {
+                    delete(slot);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Remove the entry in a slot and shift later entries of the probe chain back,
+         * so lookups never need tombstones
+         */
+        private void delete(int slot) {
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            while (keys[next] != EMPTY) {
+                int home = (int) mix(keys[next]) & mask;
+                // Move the entry into the hole unless its home slot lies cyclically in (hole, next]
+                boolean homeBetween = hole <= next
+                    ? hole < home && home <= next
+                    : hole < home || home <= next;
+                if (!homeBetween) {
+                    keys[hole] = keys[next];
+                    referenced[hole] = referenced[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            keys[hole] = EMPTY;
+            referenced[hole] = false;
+            size--;
+        }
+    }
+}